@@ -0,0 +1,39 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<ItemWithBookingDto> getAllBookingsForOwnerFirstPage(SeededShareIt shareIt) {
+        return shareIt.bookingService.getAllBookingsForOwner(shareIt.ownerId, "ALL", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDto> getAllBookingsForOwnerLastPage(SeededShareIt shareIt) {
+        int from = shareIt.items * shareIt.bookingsPerItem - PAGE_SIZE;
+        return shareIt.bookingService.getAllBookingsForOwner(shareIt.ownerId, "ALL", from, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDto> getAllBookingsForOwnerWaiting(SeededShareIt shareIt) {
+        return shareIt.bookingService.getAllBookingsForOwner(shareIt.ownerId, "WAITING", 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class SearchableShareIt extends SeededShareIt {
+
+        @Param({"database", "inverted-index"})
+        public String searchEngine;
+
+        @Override
+        protected Map<String, Object> properties() {
+            Map<String, Object> properties = super.properties();
+            properties.put("shareit.item-search.engine", searchEngine);
+            return properties;
+        }
+    }
+
+    @Benchmark
+    public List<ItemWithBookingHistory> getAllItemsFirstPage(SeededShareIt shareIt) {
+        return shareIt.itemService.getAllItems(shareIt.ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchForItemsResult(SearchableShareIt shareIt) {
+        return shareIt.itemService.searchForItemsResult(shareIt.bookerId, "дрель", 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.SimpleBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBooking;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDto;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDtoFromBooker;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toSimpleBookingDto;
+import static ru.practicum.shareit.item.mapper.ItemMapper.toItem;
+import static ru.practicum.shareit.item.mapper.ItemMapper.toItemDto;
+import static ru.practicum.shareit.item.mapper.ItemMapper.toItemWithBookingDto;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Item item;
+
+    private ItemDto itemDto;
+
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(1L)
+                .request(2L)
+                .build();
+        itemDto = toItemDto(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = Booking.builder()
+                .id(3L)
+                .start(start)
+                .end(start.plusDays(1))
+                .itemId(item.getId())
+                .booker(4L)
+                .status(BookingState.WAITING)
+                .build();
+    }
+
+    @Benchmark
+    public Item itemRoundTrip() {
+        return toItem(toItemDto(item));
+    }
+
+    @Benchmark
+    public Booking bookingRoundTrip() {
+        return toBooking(toBookingDto(booking, itemDto));
+    }
+
+    @Benchmark
+    public SimpleBookingDto simpleBooking() {
+        return toSimpleBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemWithBookingDto itemWithBooking() {
+        return toItemWithBookingDto(booking, itemDto, toBookingDtoFromBooker(toBookingDto(booking, itemDto)));
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class SeededShareIt {
+
+    private static final String[] ITEM_NAMES = {"Дрель", "Пила", "Молоток", "Лестница", "Отвертка"};
+
+    private static final BookingState[] BOOKING_STATES = {
+            BookingState.APPROVED, BookingState.WAITING, BookingState.REJECTED};
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Param({"100", "1000"})
+    public int items;
+
+    @Param({"10"})
+    public int bookingsPerItem;
+
+    public long ownerId;
+
+    public long bookerId;
+
+    public BookingServiceImpl bookingService;
+
+    public ItemServiceImpl itemService;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(properties())
+                .run();
+        seed();
+        bookingService = context.getBean(BookingServiceImpl.class);
+        itemService = context.getBean(ItemServiceImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    protected Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        ItemSearchEngine itemSearchEngine = context.getBean(ItemSearchEngine.class);
+
+        ownerId = userRepository.save(new User(null, "Owner", "owner@shareit.ru")).getId();
+        bookerId = userRepository.save(new User(null, "Booker", "booker@shareit.ru")).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < items; i++) {
+            batch.add(Item.builder()
+                    .name(ITEM_NAMES[i % ITEM_NAMES.length] + " " + i)
+                    .description("Инструмент для дома " + i)
+                    .available(true)
+                    .owner(ownerId)
+                    .build());
+            if (batch.size() == SEED_BATCH_SIZE || i == items - 1) {
+                List<Item> savedItems = itemRepository.saveAll(batch);
+                savedItems.forEach(itemSearchEngine::onItemSaved);
+                bookingRepository.saveAll(bookingsFor(savedItems, now));
+                batch.clear();
+            }
+        }
+    }
+
+    private List<Booking> bookingsFor(List<Item> savedItems, LocalDateTime now) {
+        List<Booking> bookings = new ArrayList<>(savedItems.size() * bookingsPerItem);
+        for (Item item : savedItems) {
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.minusDays(bookingsPerItem / 2).plusDays(j);
+                bookings.add(Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(12))
+                        .itemId(item.getId())
+                        .booker(bookerId)
+                        .status(BOOKING_STATES[j % BOOKING_STATES.length])
+                        .build());
+            }
+        }
+        return bookings;
+    }
+}
@@ -1,59 +1,106 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final RestTemplate streamingRest;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItServerRequestFactory,
+                         ClientHttpRequestFactory shareItServerStreamingRequestFactory,
+                         HttpClientProperties httpClientProperties,
+                         ObjectProvider<ClientHttpConnector> shareItServerConnector,
+                         WebClient.Builder webClientBuilder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                reactiveClient(webClientBuilder, httpClientProperties, shareItServerConnector, serverUrl + API_PREFIX)
         );
+        this.streamingRest = streamingTemplate(builder, shareItServerStreamingRequestFactory, serverUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, SimpleBookingDto simpleBookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, SimpleBookingDto simpleBookingDto) {
         return post("", userId, simpleBookingDto);
     }
 
-    public ResponseEntity<Object> updateBooking(Long userId, Long bookingId, String approved) {
+    public Mono<ResponseEntity<Object>> createBookings(Long userId, List<SimpleBookingDto> simpleBookingDtos) {
+        return post("/batch", userId, simpleBookingDtos);
+    }
+
+    public void exportBookingsForOwner(Long userId, HttpServletResponse response) {
+        stream(streamingRest, HttpMethod.GET, "/owner/export", userId, null, null, response);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBooking(Long userId, Long bookingId, String approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId, approved);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(Long userId,
+                                                               BookingState state,
+                                                               Integer from,
+                                                               Integer size,
+                                                               String cursor) {
+        return getPage("", userId, state, from, size, cursor);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingsForOwner(Long userId,
+                                                               BookingState state,
+                                                               Integer from,
+                                                               Integer size,
+                                                               String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getAllBookingsForOwner(Long userId, BookingState state, Integer from, Integer size) {
+    private Mono<ResponseEntity<Object>> getPage(String path,
+                                                 Long userId,
+                                                 BookingState state,
+                                                 Integer from,
+                                                 Integer size,
+                                                 String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get(path + "?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
 }
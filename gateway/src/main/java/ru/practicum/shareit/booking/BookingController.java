@@ -1,76 +1,108 @@
 package ru.practicum.shareit.booking;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.exception.ValidationException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.utilities.Validator.*;
 
 @Controller
 @RequestMapping(path = "/bookings")
-@RequiredArgsConstructor
 @Slf4j
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final int maxBatchSize;
+
+    public BookingController(BookingClient bookingClient,
+                             @Value("${shareit.bookings.batch.max-size:500}") int maxBatchSize) {
+        this.bookingClient = bookingClient;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                @RequestBody SimpleBookingDto simpleBookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                      @RequestBody SimpleBookingDto simpleBookingDto) {
         log.info("Creating booking {}, userId={}", simpleBookingDto, userId);
         validateBookingDate(simpleBookingDto);
         return bookingClient.createBooking(userId, simpleBookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                       @RequestBody List<SimpleBookingDto> simpleBookingDtos) {
+        log.info("Creating {} bookings, userId={}", simpleBookingDtos.size(), userId);
+        validateBookingBatch(simpleBookingDtos, maxBatchSize);
+        return bookingClient.createBookings(userId, simpleBookingDtos);
+    }
+
     @PatchMapping("{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                @PathVariable @Positive Long bookingId,
-                                                @RequestParam(name = "approved") String approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                      @PathVariable @Positive Long bookingId,
+                                                      @RequestParam(name = "approved") String approved) {
         log.info("Creating userId={}, bookingId={}, approved={}", userId, bookingId, approved);
         return bookingClient.updateBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                 @PathVariable @Positive Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                       @PathVariable @Positive Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                         @RequestParam(name = "state",
-                                                                 defaultValue = "all") String stateParam,
-                                                         @RequestParam(name = "from",
-                                                                 defaultValue = "0") @PositiveOrZero Integer from,
-                                                         @RequestParam(name = "size",
-                                                                 defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                               @RequestParam(name = "state",
+                                                                       defaultValue = "all") String stateParam,
+                                                               @RequestParam(name = "from",
+                                                                       defaultValue = "0") @PositiveOrZero Integer from,
+                                                               @RequestParam(name = "size",
+                                                                       defaultValue = "10") @Positive Integer size,
+                                                               @RequestParam(name = "cursor",
+                                                                       required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException(String.format("Unknown state: %s", stateParam)));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllBookingsByUserId(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        validateCursor(cursor);
+        return bookingClient.getAllBookingsByUserId(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsForOwner(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                       HttpServletResponse response) {
+        log.info("Export bookings for owner, userId={}", userId);
+        bookingClient.exportBookingsForOwner(userId, response);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsForOwner(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                         @RequestParam(name = "state",
-                                                                 defaultValue = "all") String stateParam,
-                                                         @RequestParam(name = "from",
-                                                                 defaultValue = "0") @PositiveOrZero Integer from,
-                                                         @RequestParam(name = "size",
-                                                                 defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsForOwner(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                               @RequestParam(name = "state",
+                                                                       defaultValue = "all") String stateParam,
+                                                               @RequestParam(name = "from",
+                                                                       defaultValue = "0") @PositiveOrZero Integer from,
+                                                               @RequestParam(name = "size",
+                                                                       defaultValue = "10") @Positive Integer size,
+                                                               @RequestParam(name = "cursor",
+                                                                       required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllBookingsForOwner(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        validateCursor(cursor);
+        return bookingClient.getAllBookingsForOwner(userId, state, from, size, cursor);
     }
 }
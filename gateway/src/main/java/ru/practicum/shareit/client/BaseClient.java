@@ -1,128 +1,332 @@
 package ru.practicum.shareit.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade");
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
     protected final RestTemplate rest;
 
+    @Nullable
+    protected final WebClient webClient;
+
+    private final String routePrefix;
+
+    @Nullable
+    private GatewayResponseCache responseCache;
+
+    @Nullable
+    private MeterRegistry meterRegistry;
+
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.routePrefix = Objects.toString(rest.getUriTemplateHandler().expand("").getPath(), "");
+    }
+
+    @Nullable
+    protected static WebClient reactiveClient(WebClient.Builder builder,
+                                              HttpClientProperties properties,
+                                              ObjectProvider<ClientHttpConnector> connector,
+                                              String baseUrl) {
+        if (properties.getMode() != HttpClientProperties.Mode.REACTIVE) {
+            return null;
+        }
+        return builder
+                .clientConnector(connector.getObject())
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build();
+    }
+
+    protected static RestTemplate streamingTemplate(RestTemplateBuilder builder,
+                                                    ClientHttpRequestFactory streamingRequestFactory,
+                                                    String baseUrl) {
+        return builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .requestFactory(() -> streamingRequestFactory)
+                .errorHandler(new ResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        return false;
+                    }
+
+                    @Override
+                    public void handleError(ClientHttpResponse response) {
+                    }
+                })
+                .build();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Autowired(required = false)
+    public void setResponseCache(GatewayResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    protected Mono<ResponseEntity<Object>> getCached(String path, Long userId, @Nullable String ifNoneMatch) {
+        if (responseCache == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatchHeaders(ifNoneMatch));
+        }
+        String key = rest.getUriTemplateHandler().expand(path) + "|" + userId;
+        GatewayResponseCache.CachedResponse cached = responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            return Mono.just(cached.toResponse(ifNoneMatch));
+        }
+        HttpHeaders revalidation = cached != null ? ifNoneMatchHeaders(cached.getEntityTag()) : null;
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, revalidation)
+                .map(response -> responseCache.resolve(key, cached, response, ifNoneMatch));
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path,
-                                              Long userId,
-                                              @Nullable Map<String,
-                                                      Object> parameters,
-                                              T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path,
+                                                    Long userId,
+                                                    @Nullable Map<String, Object> parameters,
+                                                    T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path,
-                                             long userId,
-                                             T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path,
+                                                   long userId,
+                                                   T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path,
-                                             long userId,
-                                             @Nullable Map<String, Object> parameters,
-                                             T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path,
+                                                   long userId,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path,
-                                               Long userId,
-                                               @Nullable Map<String, Object> parameters,
-                                               T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path,
+                                                     Long userId,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    protected void stream(RestTemplate streamingRest,
+                          HttpMethod method,
+                          String path,
+                          @Nullable Long userId,
+                          @Nullable MediaType contentType,
+                          @Nullable InputStream body,
+                          HttpServletResponse response) {
+        long startNanos = System.nanoTime();
+        try {
+            streamingRest.execute(path, method, request -> {
+                request.getHeaders().setAccept(List.of(MediaType.ALL));
+                if (userId != null) {
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                }
+                if (body == null) {
+                    return;
+                }
+                request.getHeaders().setContentType(contentType);
+                if (request instanceof StreamingHttpOutputMessage) {
+                    ((StreamingHttpOutputMessage) request).setBody(out -> body.transferTo(out));
+                } else {
+                    body.transferTo(request.getBody());
+                }
+            }, shareitServerResponse -> {
+                response.setStatus(shareitServerResponse.getRawStatusCode());
+                passthroughHeaders(shareitServerResponse.getHeaders())
+                        .forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+                copyFlushing(shareitServerResponse.getBody(), response.getOutputStream());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            recordExchange(method, path, "streaming", "IO_ERROR", startNanos);
+            throw e;
+        }
+        recordExchange(method, path, "streaming", String.valueOf(response.getStatus()), startNanos);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method,
+                                                                String path,
+                                                                Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body,
+                                                                @Nullable HttpHeaders extraHeaders) {
+        WebClient reactive = webClient;
+        if (reactive != null) {
+            return Mono.defer(() -> {
+                long startNanos = System.nanoTime();
+                return exchangeReactive(reactive, method, path, userId, parameters, body, extraHeaders)
+                        .doOnSuccess(response -> recordExchange(method, path, "reactive",
+                                String.valueOf(response.getStatusCodeValue()), startNanos))
+                        .doOnError(e -> recordExchange(method, path, "reactive", "IO_ERROR", startNanos));
+            });
+        }
+        long startNanos = System.nanoTime();
+        ResponseEntity<Object> response;
+        try {
+            response = exchangeBlocking(method, path, userId, parameters, body, extraHeaders);
+        } catch (RuntimeException e) {
+            recordExchange(method, path, "blocking", "IO_ERROR", startNanos);
+            throw e;
+        }
+        recordExchange(method, path, "blocking", String.valueOf(response.getStatusCodeValue()), startNanos);
+        return Mono.just(response);
+    }
+
+    private void recordExchange(HttpMethod method, String path, String client, String status, long startNanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Timer.builder("shareit.gateway.client.requests")
+                .description("Requests sent by the gateway to the ShareIt server")
+                .tag("method", method.name())
+                .tag("route", route(path))
+                .tag("client", client)
+                .tag("status", status)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String route(String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query >= 0 ? path.substring(0, query) : path;
+        return routePrefix + ID_SEGMENT.matcher(withoutQuery).replaceAll("/{id}");
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
-                                                          String path,
-                                                          Long userId,
-                                                          @Nullable Map<String, Object> parameters,
-                                                          @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method,
+                                                        String path,
+                                                        Long userId,
+                                                        @Nullable Map<String, Object> parameters,
+                                                        @Nullable T body,
+                                                        @Nullable HttpHeaders extraHeaders) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, extraHeaders));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(passthroughHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> Mono<ResponseEntity<Object>> exchangeReactive(WebClient reactive,
+                                                              HttpMethod method,
+                                                              String path,
+                                                              Long userId,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable T body,
+                                                              @Nullable HttpHeaders extraHeaders) {
+        WebClient.RequestBodySpec request = reactive.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId, extraHeaders)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable HttpHeaders extraHeaders) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (extraHeaders != null) {
+            headers.addAll(extraHeaders);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(passthroughHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -130,4 +334,35 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
+    @Nullable
+    private static HttpHeaders ifNoneMatchHeaders(@Nullable String entityTag) {
+        if (entityTag == null) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_NONE_MATCH, entityTag);
+        return headers;
+    }
+
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
 }
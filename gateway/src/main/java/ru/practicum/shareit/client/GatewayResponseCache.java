@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewayResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+
+    public GatewayResponseCache(@Value("${shareit-server.response-cache.maximum-size:10000}") long maximumSize,
+                                MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway-responses");
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public ResponseEntity<Object> resolve(String key,
+                                          @Nullable CachedResponse cached,
+                                          ResponseEntity<Object> response,
+                                          @Nullable String ifNoneMatch) {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            CachedResponse revalidated = cached.revalidated(response.getHeaders());
+            responses.put(key, revalidated);
+            return revalidated.toResponse(ifNoneMatch);
+        }
+        Optional<CachedResponse> cacheable = CachedResponse.from(response);
+        if (cacheable.isEmpty()) {
+            responses.invalidate(key);
+            return response;
+        }
+        responses.put(key, cacheable.get());
+        return cacheable.get().toResponse(ifNoneMatch);
+    }
+
+    public static final class CachedResponse {
+
+        private final String entityTag;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        private final long freshUntilMillis;
+
+        private CachedResponse(String entityTag, HttpHeaders headers, byte[] body, long freshUntilMillis) {
+            this.entityTag = entityTag;
+            this.headers = headers;
+            this.body = body;
+            this.freshUntilMillis = freshUntilMillis;
+        }
+
+        static Optional<CachedResponse> from(ResponseEntity<Object> response) {
+            HttpHeaders headers = response.getHeaders();
+            String cacheControl = Optional.ofNullable(headers.getCacheControl()).orElse("").toLowerCase(Locale.ROOT);
+            if (response.getStatusCode() != HttpStatus.OK
+                    || headers.getETag() == null
+                    || !(response.getBody() instanceof byte[])
+                    || cacheControl.contains("no-store")
+                    || cacheControl.contains("private")) {
+                return Optional.empty();
+            }
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            return Optional.of(new CachedResponse(headers.getETag(), copy, (byte[]) response.getBody(),
+                    freshUntil(cacheControl)));
+        }
+
+        public String getEntityTag() {
+            return entityTag;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() < freshUntilMillis;
+        }
+
+        CachedResponse revalidated(HttpHeaders notModifiedHeaders) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            String cacheControl = notModifiedHeaders.getCacheControl();
+            if (cacheControl != null) {
+                copy.setCacheControl(cacheControl);
+            } else {
+                cacheControl = Optional.ofNullable(headers.getCacheControl()).orElse("");
+            }
+            return new CachedResponse(entityTag, copy, body, freshUntil(cacheControl.toLowerCase(Locale.ROOT)));
+        }
+
+        public ResponseEntity<Object> toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch, entityTag)) {
+                HttpHeaders notModified = new HttpHeaders();
+                notModified.setETag(entityTag);
+                Optional.ofNullable(headers.getCacheControl()).ifPresent(notModified::setCacheControl);
+                notModified.setVary(headers.getVary());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(notModified).build();
+            }
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+
+        private static long freshUntil(String cacheControl) {
+            if (cacheControl.contains("no-cache")) {
+                return 0;
+            }
+            return Arrays.stream(cacheControl.split(","))
+                    .map(String::trim)
+                    .filter(directive -> directive.startsWith("max-age="))
+                    .findFirst()
+                    .map(directive -> {
+                        try {
+                            return System.currentTimeMillis()
+                                    + Long.parseLong(directive.substring("max-age=".length())) * 1_000;
+                        } catch (NumberFormatException e) {
+                            return 0L;
+                        }
+                    })
+                    .orElse(0L);
+        }
+
+        private static boolean matches(@Nullable String ifNoneMatch, String entityTag) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            String opaqueTag = opaque(entityTag);
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .anyMatch(candidate -> candidate.equals("*") || opaque(candidate).equals(opaqueTag));
+        }
+
+        private static String opaque(String entityTag) {
+            return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+        }
+    }
+}
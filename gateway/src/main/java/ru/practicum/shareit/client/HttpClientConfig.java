@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    static final String MODE_PROPERTY = "shareit-server.http-client.mode";
+
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(BlockingMode.class)
+    static class BlockingClientConfig {
+
+        @Bean
+        public PoolingHttpClientConnectionManager shareItServerConnectionManager(HttpClientProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(properties.getMaxConnections());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean
+        public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                           HttpClientProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .build();
+            return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient shareItServerHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItServerStreamingRequestFactory(
+                CloseableHttpClient shareItServerHttpClient) {
+            HttpComponentsClientHttpRequestFactory requestFactory =
+                    new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+            requestFactory.setBufferRequestBody(false);
+            return requestFactory;
+        }
+
+        @Bean
+        public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(ReactiveMode.class)
+    static class ReactiveClientConfig {
+
+        @Bean
+        public ClientHttpConnector shareItServerConnector(HttpClientProperties properties) {
+            ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxConnectionsPerRoute())
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .maxIdleTime(properties.getIdleTimeout())
+                    .maxLifeTime(properties.getKeepAlive())
+                    .evictInBackground(properties.getIdleTimeout())
+                    .metrics(true)
+                    .build();
+            HttpClient httpClient = HttpClient.create(connectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout())
+                    .keepAlive(true);
+            return new ReactorClientHttpConnector(httpClient);
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItServerRequestFactory(HttpClientProperties properties) {
+            return simpleRequestFactory(properties);
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItServerStreamingRequestFactory(HttpClientProperties properties) {
+            SimpleClientHttpRequestFactory requestFactory = simpleRequestFactory(properties);
+            requestFactory.setBufferRequestBody(false);
+            return requestFactory;
+        }
+
+        private static SimpleClientHttpRequestFactory simpleRequestFactory(HttpClientProperties properties) {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+            requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+            return requestFactory;
+        }
+    }
+
+    static HttpClientProperties.Mode mode(Binder binder) {
+        return binder.bind(MODE_PROPERTY, HttpClientProperties.Mode.class)
+                .orElse(HttpClientProperties.Mode.BLOCKING);
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, defaultKeepAliveMillis) : defaultKeepAliveMillis;
+        };
+    }
+
+    abstract static class ModeCondition extends SpringBootCondition {
+
+        private final HttpClientProperties.Mode expected;
+
+        ModeCondition(HttpClientProperties.Mode expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            HttpClientProperties.Mode mode = mode(Binder.get(context.getEnvironment()));
+            String message = MODE_PROPERTY + " is " + mode;
+            return mode == expected ? ConditionOutcome.match(message) : ConditionOutcome.noMatch(message);
+        }
+    }
+
+    static class BlockingMode extends ModeCondition {
+        BlockingMode() {
+            super(HttpClientProperties.Mode.BLOCKING);
+        }
+    }
+
+    static class ReactiveMode extends ModeCondition {
+        ReactiveMode() {
+            super(HttpClientProperties.Mode.REACTIVE);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    private Mode mode = Mode.BLOCKING;
+
+    private int maxConnections = 200;
+
+    private int maxConnectionsPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    public enum Mode {
+        BLOCKING,
+        REACTIVE
+    }
+}
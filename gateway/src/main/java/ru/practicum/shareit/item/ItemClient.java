@@ -1,16 +1,28 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,40 +30,99 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final RestTemplate streamingRest;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItServerRequestFactory,
+                      ClientHttpRequestFactory shareItServerStreamingRequestFactory,
+                      HttpClientProperties httpClientProperties,
+                      ObjectProvider<ClientHttpConnector> shareItServerConnector,
+                      WebClient.Builder webClientBuilder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                reactiveClient(webClientBuilder, httpClientProperties, shareItServerConnector, serverUrl + API_PREFIX)
         );
+        this.streamingRest = streamingTemplate(builder, shareItServerStreamingRequestFactory, serverUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> postItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> postItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> postComment(Long userId, Long itemId, ItemWithBookingHistory.CommentDto commentDto) {
+    public void importItems(Long userId, MediaType contentType, InputStream body, HttpServletResponse response) {
+        stream(streamingRest, HttpMethod.POST, "/import", userId, contentType, body, response);
+    }
+
+    public Mono<ResponseEntity<Object>> postComment(Long userId, Long itemId, ItemWithBookingHistory.CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> updateItemInfo(Long userId, Long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItemInfo(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemByIdWithBookingHistory(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemByIdWithBookingHistory(Long userId, Long itemId, String ifNoneMatch) {
+        return getCached("/" + itemId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllItems(Long userId, Integer from, Integer size) {
+        if (from == null || size == null) {
+            return get("", userId);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(Long userId,
+                                                            Long itemId,
+                                                            LocalDateTime start,
+                                                            LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end
+        );
+        return get("/" + itemId + "/availability?start={start}&end={end}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> searchFreeItems(Long userId,
+                                                        String text,
+                                                        Integer from,
+                                                        Integer size,
+                                                        LocalDateTime freeFrom,
+                                                        LocalDateTime freeTo) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("freeFrom", freeFrom);
+        parameters.put("freeTo", freeTo);
+        String path = "/search?text={text}&freeFrom={freeFrom}&freeTo={freeTo}";
+        if (from != null && size != null) {
+            parameters.put("from", from);
+            parameters.put("size", size);
+            path += "&from={from}&size={size}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItemsByUserId(Long userId, String text) {
+    public Mono<ResponseEntity<Object>> searchItemsByUserId(Long userId, String text, Integer from, Integer size) {
+        if (from == null || size == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text
+            );
+            return get("/search?text={text}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text=" + text, userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 }
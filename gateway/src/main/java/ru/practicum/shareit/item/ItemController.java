@@ -2,16 +2,26 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.utilities.Validator.validateCommentText;
 import static ru.practicum.shareit.utilities.Validator.validateItemDto;
+import static ru.practicum.shareit.utilities.Validator.validatePagination;
+import static ru.practicum.shareit.utilities.Validator.validateTimeWindow;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -22,47 +32,85 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> postItem(@RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
-                                           @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> postItem(@RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
+                                                 @RequestBody ItemDto itemDto) {
         log.info("Creating item {}, userId={}", itemDto, userId);
         validateItemDto(itemDto);
         return itemClient.postItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public void importItems(@RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Importing items, userId={}, contentType={}", userId, contentType);
+        itemClient.importItems(userId, contentType, request.getInputStream(), response);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
-                                              @PathVariable @Positive Long itemId,
-                                              @RequestBody ItemWithBookingHistory.CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(@RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
+                                                    @PathVariable @Positive Long itemId,
+                                                    @RequestBody ItemWithBookingHistory.CommentDto commentDto) {
         log.info("Creating userId={}, itemId={}, comment {}", userId, itemId, commentDto);
         validateCommentText(commentDto);
         return itemClient.postComment(userId, itemId, commentDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItemInfo(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                 @PathVariable @Positive Long itemId,
-                                                 @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItemInfo(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                       @PathVariable @Positive Long itemId,
+                                                       @RequestBody ItemDto itemDto) {
         log.info("Creating item={}, userId={}, itemId={}", itemDto, userId, itemId);
         return itemClient.updateItemInfo(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemByIdWithBookingHistory(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                                @PathVariable(required = false) @Positive Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemByIdWithBookingHistory(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                                      @PathVariable(required = false) @Positive Long itemId,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                              required = false) String ifNoneMatch) {
         log.info("Creating userId={}, itemId={}", userId, itemId);
-        return itemClient.getItemByIdWithBookingHistory(userId, itemId);
+        return itemClient.getItemByIdWithBookingHistory(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
-        log.info("Creating userId={}", userId);
-        return itemClient.getAllItems(userId);
+    public Mono<ResponseEntity<Object>> getAllItems(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                    @RequestParam(name = "from", required = false) Integer from,
+                                                    @RequestParam(name = "size", required = false) Integer size) {
+        log.info("Creating userId={}, from={}, size={}", userId, from, size);
+        validatePagination(from, size);
+        return itemClient.getAllItems(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByUserId(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                      @RequestParam(name = "text") String text) {
-        log.info("Creating userId={}, text={}", userId, text);
-        return itemClient.searchItemsByUserId(userId, text);
+    public Mono<ResponseEntity<Object>> searchItemsByUserId(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                            @RequestParam(name = "text") String text,
+                                                            @RequestParam(name = "from", required = false) Integer from,
+                                                            @RequestParam(name = "size", required = false) Integer size,
+                                                            @RequestParam(name = "freeFrom", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                                                            @RequestParam(name = "freeTo", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo) {
+        log.info("Creating userId={}, text={}, from={}, size={}, freeFrom={}, freeTo={}",
+                userId, text, from, size, freeFrom, freeTo);
+        validatePagination(from, size);
+        if (freeFrom == null && freeTo == null) {
+            return itemClient.searchItemsByUserId(userId, text, from, size);
+        }
+        validateTimeWindow(freeFrom, freeTo);
+        return itemClient.searchFreeItems(userId, text, from, size, freeFrom, freeTo);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                            @PathVariable @Positive Long itemId,
+                                                            @RequestParam(name = "start", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                            @RequestParam(name = "end", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Getting availability userId={}, itemId={}, start={}, end={}", userId, itemId, start, end);
+        validateTimeWindow(start, end);
+        return itemClient.getItemAvailability(userId, itemId, start, end);
     }
 }
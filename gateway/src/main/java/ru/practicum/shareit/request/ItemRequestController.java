@@ -2,15 +2,18 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import static ru.practicum.shareit.utilities.Validator.validateCursor;
 import static ru.practicum.shareit.utilities.Validator.validateRequestDescription;
 
 @Controller
@@ -24,33 +27,38 @@ public class ItemRequestController {
 
     @PostMapping
     @ResponseBody
-    public ResponseEntity<Object> postItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> postItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Creating userId={}, request={}", userId, itemRequestDto);
         validateRequestDescription(itemRequestDto);
         return itemRequestClient.postItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getSelfRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getSelfRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Creating userId={}", userId);
         return itemRequestClient.getSelfRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "from",
-                                                      defaultValue = "0") @PositiveOrZero Integer from,
-                                              @RequestParam(name = "size",
-                                                      defaultValue = "10") @Positive Integer size) {
-        log.info("Creating userId={}, from={}, size={}", userId, from, size);
-        return itemRequestClient.getRequests(userId, from, size);
+    public Mono<ResponseEntity<Object>> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(name = "from",
+                                                            defaultValue = "0") @PositiveOrZero Integer from,
+                                                    @RequestParam(name = "size",
+                                                            defaultValue = "10") @Positive Integer size,
+                                                    @RequestParam(name = "cursor",
+                                                            required = false) String cursor) {
+        log.info("Creating userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        validateCursor(cursor);
+        return itemRequestClient.getRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long requestId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                               required = false) String ifNoneMatch) {
         log.info("Creating userId={}, requestId={}", userId, requestId);
-        return itemRequestClient.getRequestById(userId, requestId);
+        return itemRequestClient.getRequestById(userId, requestId, ifNoneMatch);
     }
 }
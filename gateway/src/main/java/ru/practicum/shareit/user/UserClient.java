@@ -1,47 +1,78 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
+    private final RestTemplate streamingRest;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItServerRequestFactory,
+                      ClientHttpRequestFactory shareItServerStreamingRequestFactory,
+                      HttpClientProperties httpClientProperties,
+                      ObjectProvider<ClientHttpConnector> shareItServerConnector,
+                      WebClient.Builder webClientBuilder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                reactiveClient(webClientBuilder, httpClientProperties, shareItServerConnector, serverUrl + API_PREFIX)
         );
+        this.streamingRest = streamingTemplate(builder, shareItServerStreamingRequestFactory, serverUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> saveUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> saveUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUserById(Long userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUserById(Long userId, UserDto userDto) {
         return patch("/" + userId, userId, userDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
-        return get("/" + userId, userId);
+    public Mono<ResponseEntity<Object>> getUserById(Long userId, String ifNoneMatch) {
+        return getCached("/" + userId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getUsers(Integer size, String cursor) {
+        if (cursor == null) {
+            return get("?size={size}", null, Map.of("size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public void exportUsers(HttpServletResponse response) {
+        stream(streamingRest, HttpMethod.GET, "/export", null, null, null, response);
     }
 
-    public ResponseEntity<Object> deleteUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(Long userId) {
         return delete("/" + userId, userId);
     }
 }
@@ -2,14 +2,19 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 
+import static ru.practicum.shareit.utilities.Validator.validateCursor;
 import static ru.practicum.shareit.utilities.Validator.validateUserDto;
+import static ru.practicum.shareit.utilities.Validator.validateUserPageSize;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -20,7 +25,7 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveUser(@RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> saveUser(@RequestBody UserDto userDto) {
         log.info("Creating user={}", userDto);
         validateUserDto(userDto);
         return userClient.saveUser(userDto);
@@ -28,27 +33,38 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     @ResponseBody
-    public ResponseEntity<Object> updateUserById(@PathVariable @Positive Long userId,
-                                                 @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUserById(@PathVariable @Positive Long userId,
+                                                       @RequestBody UserDto userDto) {
         log.info("Updating userId={}, user={}", userId, userDto);
         return userClient.updateUserById(userId, userDto);
     }
 
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable @Positive Long userId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                            required = false) String ifNoneMatch) {
         log.info("Getting userId={}", userId);
-        return userClient.getUserById(userId);
+        return userClient.getUserById(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("Getting users");
-        return userClient.getAllUsers();
+    public Mono<ResponseEntity<Object>> getUsers(@RequestParam(name = "size", defaultValue = "100") Integer size,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Getting users, size={}, cursor={}", size, cursor);
+        validateUserPageSize(size);
+        validateCursor(cursor);
+        return userClient.getUsers(size, cursor);
+    }
+
+    @GetMapping("/export")
+    public void exportUsers(HttpServletResponse response) {
+        log.info("Exporting users");
+        userClient.exportUsers(response);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable @Positive Long userId) {
         log.info("Delete userId={}", userId);
         return userClient.deleteUserById(userId);
     }
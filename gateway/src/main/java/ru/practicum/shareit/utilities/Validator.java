@@ -10,10 +10,16 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
 
 @Component
 public class Validator {
 
+    private static final Pattern CURSOR_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private static final int MAX_USER_PAGE_SIZE = 1000;
+
     public static void validateUserDto(UserDto userDto) throws ValidationException {
         if (userDto.getEmail() == null || userDto.getEmail().isBlank() || !userDto.getEmail().contains("@")) {
             throw new ValidationException("Некорректный email.");
@@ -42,6 +48,20 @@ public class Validator {
         }
     }
 
+    public static void validateBookingBatch(List<SimpleBookingDto> simpleBookingDtos, int maxBatchSize) {
+        if (simpleBookingDtos.isEmpty() || simpleBookingDtos.size() > maxBatchSize) {
+            throw new ValidationException(String.format("Пакет должен содержать от 1 до %s бронирований.",
+                    maxBatchSize));
+        }
+    }
+
+    public static void validateUserPageSize(Integer size) {
+        if (size < 1 || size > MAX_USER_PAGE_SIZE) {
+            throw new ValidationException(String.format("Размер страницы должен быть от 1 до %s.",
+                    MAX_USER_PAGE_SIZE));
+        }
+    }
+
     public static void validateCommentText(ItemWithBookingHistory.CommentDto commentDto) {
         if (commentDto.getText() == null || commentDto.getText().isEmpty()) {
             throw new ValidationException("Поле комментария не может быть пустым.");
@@ -53,4 +73,25 @@ public class Validator {
             throw new ValidationException("Описание не может быть пустым.");
         }
     }
+
+    public static void validateTimeWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Некорректный интервал времени.");
+        }
+    }
+
+    public static void validatePagination(Integer from, Integer size) {
+        if ((from == null) != (size == null)) {
+            throw new ValidationException("Параметры from и size задаются вместе.");
+        }
+        if (from != null && (from < 0 || size <= 0)) {
+            throw new ValidationException("Некорректные параметры пагинации.");
+        }
+    }
+
+    public static void validateCursor(String cursor) {
+        if (cursor != null && !CURSOR_PATTERN.matcher(cursor).matches()) {
+            throw new ValidationException("Некорректный курсор.");
+        }
+    }
 }
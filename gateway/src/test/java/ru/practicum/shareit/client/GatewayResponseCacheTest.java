@@ -0,0 +1,176 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.GatewayResponseCache.CachedResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GatewayResponseCacheTest {
+    private static final String KEY = "GET /items/1 user=1";
+
+    private GatewayResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new GatewayResponseCache(100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fromCachesOkResponseWithEntityTag() {
+        CachedResponse cached = CachedResponse.from(ok("\"v1\"", "max-age=60", "{\"id\":1}")).orElseThrow();
+
+        assertEquals("\"v1\"", cached.getEntityTag());
+        assertTrue(cached.isFresh());
+    }
+
+    @Test
+    void fromSkipsUncacheableResponses() {
+        assertTrue(CachedResponse.from(ok(null, "max-age=60", "{}")).isEmpty());
+        assertTrue(CachedResponse.from(ok("\"v1\"", "no-store", "{}")).isEmpty());
+        assertTrue(CachedResponse.from(ok("\"v1\"", "private, max-age=60", "{}")).isEmpty());
+        assertTrue(CachedResponse.from(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .eTag("\"v1\"")
+                .body((Object) bytes("{}"))).isEmpty());
+        assertTrue(CachedResponse.from(ResponseEntity.ok().eTag("\"v1\"").body((Object) "{}")).isEmpty());
+    }
+
+    @Test
+    void freshnessFollowsCacheControl() {
+        assertTrue(CachedResponse.from(ok("\"v1\"", "MAX-AGE=60", "{}")).orElseThrow().isFresh());
+        assertFalse(CachedResponse.from(ok("\"v1\"", "no-cache, max-age=60", "{}")).orElseThrow().isFresh());
+        assertFalse(CachedResponse.from(ok("\"v1\"", "max-age=0", "{}")).orElseThrow().isFresh());
+        assertFalse(CachedResponse.from(ok("\"v1\"", "max-age=soon", "{}")).orElseThrow().isFresh());
+        assertFalse(CachedResponse.from(ok("\"v1\"", null, "{}")).orElseThrow().isFresh());
+    }
+
+    @Test
+    void revalidatedTakesCacheControlFromNotModified() {
+        CachedResponse cached = CachedResponse.from(ok("\"v1\"", "max-age=0", "{\"id\":1}")).orElseThrow();
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setCacheControl("max-age=60");
+
+        CachedResponse revalidated = cached.revalidated(notModified);
+
+        assertTrue(revalidated.isFresh());
+        ResponseEntity<Object> response = revalidated.toResponse(null);
+        assertEquals("max-age=60", response.getHeaders().getCacheControl());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertArrayEquals(bytes("{\"id\":1}"), (byte[]) response.getBody());
+    }
+
+    @Test
+    void revalidatedKeepsCachedCacheControlWhenNotModifiedHasNone() {
+        CachedResponse cached = CachedResponse.from(ok("\"v1\"", "max-age=60", "{}")).orElseThrow();
+
+        CachedResponse revalidated = cached.revalidated(new HttpHeaders());
+
+        assertTrue(revalidated.isFresh());
+        assertEquals("max-age=60", revalidated.toResponse(null).getHeaders().getCacheControl());
+    }
+
+    @Test
+    void toResponseMatchesIfNoneMatch() {
+        CachedResponse cached = CachedResponse.from(okWithVary("\"v1\"")).orElseThrow();
+
+        ResponseEntity<Object> notModified = cached.toResponse("\"v0\", W/\"v1\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("\"v1\"", notModified.getHeaders().getETag());
+        assertEquals("max-age=60", notModified.getHeaders().getCacheControl());
+        assertEquals(List.of("X-Sharer-User-Id"), notModified.getHeaders().getVary());
+        assertNull(notModified.getBody());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, cached.toResponse("*").getStatusCode());
+        assertEquals(HttpStatus.OK, cached.toResponse("\"v2\"").getStatusCode());
+        assertEquals(HttpStatus.OK, cached.toResponse(" ").getStatusCode());
+        assertEquals(HttpStatus.OK, cached.toResponse(null).getStatusCode());
+    }
+
+    @Test
+    void toResponseMatchesWeakCachedTag() {
+        CachedResponse cached = CachedResponse.from(ok("W/\"v1\"", "max-age=60", "{}")).orElseThrow();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, cached.toResponse("\"v1\"").getStatusCode());
+    }
+
+    @Test
+    void resolveStoresOkResponse() {
+        ResponseEntity<Object> response = responseCache.resolve(KEY, null, ok("\"v1\"", "max-age=60", "{}"), null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"v1\"", responseCache.get(KEY).getEntityTag());
+    }
+
+    @Test
+    void resolveAnswersNotModifiedFromCachedEntry() {
+        responseCache.resolve(KEY, null, ok("\"v1\"", "max-age=0", "{\"id\":1}"), null);
+        CachedResponse cached = responseCache.get(KEY);
+        ResponseEntity<Object> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag("\"v1\"")
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)))
+                .build();
+
+        ResponseEntity<Object> response = responseCache.resolve(KEY, cached, notModified, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(bytes("{\"id\":1}"), (byte[]) response.getBody());
+        assertTrue(responseCache.get(KEY).isFresh());
+        assertEquals(HttpStatus.NOT_MODIFIED,
+                responseCache.resolve(KEY, responseCache.get(KEY), notModified, "\"v1\"").getStatusCode());
+    }
+
+    @Test
+    void resolveReplacesEntryWithNewOkResponse() {
+        responseCache.resolve(KEY, null, ok("\"v1\"", "max-age=60", "{\"name\":\"old\"}"), null);
+
+        ResponseEntity<Object> response = responseCache.resolve(KEY, responseCache.get(KEY),
+                ok("\"v2\"", "max-age=60", "{\"name\":\"new\"}"), "\"v1\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(bytes("{\"name\":\"new\"}"), (byte[]) response.getBody());
+        assertEquals("\"v2\"", responseCache.get(KEY).getEntityTag());
+    }
+
+    @Test
+    void resolveEvictsEntryOnNotFound() {
+        responseCache.resolve(KEY, null, ok("\"v1\"", "max-age=60", "{}"), null);
+        ResponseEntity<Object> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND).body(bytes("{}"));
+
+        ResponseEntity<Object> response = responseCache.resolve(KEY, responseCache.get(KEY), notFound, "\"v1\"");
+
+        assertSame(notFound, response);
+        assertNull(responseCache.get(KEY));
+    }
+
+    private static ResponseEntity<Object> ok(String entityTag, String cacheControl, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (entityTag != null) {
+            headers.setETag(entityTag);
+        }
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
+        }
+        return ResponseEntity.ok().headers(headers).body(bytes(body));
+    }
+
+    private static ResponseEntity<Object> okWithVary(String entityTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(entityTag);
+        headers.setCacheControl("max-age=60");
+        headers.setVary(List.of("X-Sharer-User-Id"));
+        return ResponseEntity.ok().headers(headers).body(bytes("{}"));
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
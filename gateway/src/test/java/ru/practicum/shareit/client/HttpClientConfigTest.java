@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.user.UserClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@SpringBootTest
+public class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ClientHttpRequestFactory shareItServerRequestFactory;
+
+    @Test
+    void blockingModeSendsRequestsThroughRestTemplate() {
+        assertNull(ReflectionTestUtils.getField(userClient, "webClient"));
+        assertTrue(shareItServerRequestFactory instanceof HttpComponentsClientHttpRequestFactory);
+        RestTemplate rest = (RestTemplate) ReflectionTestUtils.getField(userClient, "rest");
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(requestTo("http://localhost:9090/users/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = userClient.getUserById(1L, null).block();
+
+        server.verify();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void blockingModeBuildsOnlyTheApachePool() {
+        contextRunner.run(context -> {
+            assertEquals(1, context.getBeansOfType(PoolingHttpClientConnectionManager.class).size());
+            assertTrue(context.getBeansOfType(ClientHttpConnector.class).isEmpty());
+        });
+    }
+
+    @Test
+    void reactiveModeBuildsOnlyTheReactorPool() {
+        contextRunner.withPropertyValues("shareit-server.http-client.mode=reactive").run(context -> {
+            assertTrue(context.getBeansOfType(PoolingHttpClientConnectionManager.class).isEmpty());
+            assertEquals(1, context.getBeansOfType(ClientHttpConnector.class).size());
+            assertTrue(context.getBean("shareItServerStreamingRequestFactory")
+                    instanceof SimpleClientHttpRequestFactory);
+        });
+    }
+}
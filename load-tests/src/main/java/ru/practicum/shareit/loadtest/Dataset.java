@@ -0,0 +1,132 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Dataset {
+
+    static final String[] ITEM_NAMES = {
+            "Дрель", "Перфоратор", "Шуруповерт", "Лестница", "Пила", "Палатка",
+            "Велосипед", "Самокат", "Байдарка", "Проектор", "Гитара", "Фотоаппарат"};
+
+    static final String[] DESCRIPTIONS = {
+            "в хорошем состоянии", "почти новая вещь", "с запасным аккумулятором",
+            "для дачи и ремонта", "подойдет для похода", "только бережное использование"};
+
+    private static final long BOOKING_SLOT_HOURS = 3;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final List<Long> ownerIds = new ArrayList<>();
+
+    private final List<SeededItem> items = new ArrayList<>();
+
+    private final Queue<WaitingBooking> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong bookingSlots = new AtomicLong();
+
+    private final LocalDateTime bookingEpoch = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    void addUser(long userId) {
+        userIds.add(userId);
+    }
+
+    void addOwner(long ownerId) {
+        ownerIds.add(ownerId);
+    }
+
+    void addItem(long itemId, long ownerId) {
+        items.add(new SeededItem(itemId, ownerId));
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public List<SeededItem> getItems() {
+        return items;
+    }
+
+    public long randomUser(SplittableRandom random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    public long randomOwner(SplittableRandom random) {
+        return ownerIds.get(random.nextInt(ownerIds.size()));
+    }
+
+    public SeededItem randomItem(SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    public long randomBooker(SplittableRandom random, SeededItem item) {
+        long booker;
+        do {
+            booker = randomUser(random);
+        } while (booker == item.getOwnerId());
+        return booker;
+    }
+
+    public String randomSearchTerm(SplittableRandom random) {
+        String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)].toLowerCase();
+        return random.nextInt(4) == 0 ? name.substring(0, 4) : name;
+    }
+
+    public LocalDateTime nextBookingStart() {
+        return bookingEpoch.plusHours(bookingSlots.getAndIncrement() * BOOKING_SLOT_HOURS);
+    }
+
+    public void addWaitingBooking(long bookingId, long ownerId) {
+        waitingBookings.add(new WaitingBooking(bookingId, ownerId));
+    }
+
+    public WaitingBooking pollWaitingBooking() {
+        return waitingBookings.poll();
+    }
+
+    public static final class SeededItem {
+
+        private final long id;
+
+        private final long ownerId;
+
+        SeededItem(long id, long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getOwnerId() {
+            return ownerId;
+        }
+    }
+
+    public static final class WaitingBooking {
+
+        private final long id;
+
+        private final long ownerId;
+
+        WaitingBooking(long id, long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getOwnerId() {
+            return ownerId;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class DatasetSeeder {
+
+    private static final int BOOKING_BATCH_SIZE = 500;
+
+    private final ShareItHttp http;
+
+    private final LoadTestOptions options;
+
+    private final PrintStream log;
+
+    public DatasetSeeder(ShareItHttp http, LoadTestOptions options, PrintStream log) {
+        this.http = http;
+        this.options = options;
+        this.log = log;
+    }
+
+    public Dataset seed() {
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+        Dataset dataset = new Dataset();
+        long started = System.nanoTime();
+        seedUsers(dataset);
+        seedItems(dataset, random);
+        seedRequests(dataset, random);
+        seedBookings(dataset, random);
+        log.printf("Seeded %d users, %d items, %d requests, %d bookings in %d ms%n",
+                dataset.getUserIds().size(), dataset.getItems().size(), options.getRequests(), options.getBookings(),
+                (System.nanoTime() - started) / 1_000_000);
+        return dataset;
+    }
+
+    private void seedUsers(Dataset dataset) {
+        for (int i = 0; i < options.getUsers(); i++) {
+            Map<String, Object> user = Map.of(
+                    "name", "Пользователь " + i,
+                    "email", "user" + i + "@loadtest.ru");
+            dataset.addUser(http.expectJson(http.post("/users", null, user)).get("id").asLong());
+        }
+    }
+
+    private void seedItems(Dataset dataset, SplittableRandom random) {
+        int owners = Math.max(1, options.getUsers() / 2);
+        for (int owner = 0; owner < owners; owner++) {
+            long ownerId = dataset.getUserIds().get(owner);
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = owner; i < options.getItems(); i += owners) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                String name = Dataset.ITEM_NAMES[random.nextInt(Dataset.ITEM_NAMES.length)];
+                item.put("name", name + " " + i);
+                item.put("description", name + " " + Dataset.DESCRIPTIONS[random.nextInt(Dataset.DESCRIPTIONS.length)]);
+                item.put("available", true);
+                ndjson.append(http.json(item)).append('\n');
+            }
+            if (ndjson.length() == 0) {
+                continue;
+            }
+            HttpResponse<String> imported = http.send("POST", "/items/import", ownerId, "application/x-ndjson",
+                    ndjson.toString());
+            String[] reports = imported.body().split("\n");
+            JsonNode summary = http.readJson(reports[reports.length - 1]);
+            if (imported.statusCode() != 200 || summary.path("failed").asLong(-1) != 0) {
+                throw new IllegalStateException("Item import failed: " + imported.body());
+            }
+            dataset.addOwner(ownerId);
+            for (JsonNode item : http.expectJson(http.get("/items", ownerId))) {
+                dataset.addItem(item.get("id").asLong(), ownerId);
+            }
+        }
+    }
+
+    private void seedRequests(Dataset dataset, SplittableRandom random) {
+        for (int i = 0; i < options.getRequests(); i++) {
+            Map<String, Object> request = Map.of("description",
+                    "Нужна вещь: " + Dataset.ITEM_NAMES[random.nextInt(Dataset.ITEM_NAMES.length)].toLowerCase());
+            http.expectJson(http.post("/requests", dataset.randomUser(random), request));
+        }
+    }
+
+    private void seedBookings(Dataset dataset, SplittableRandom random) {
+        Map<Long, List<Map<String, Object>>> entriesByBooker = new LinkedHashMap<>();
+        Map<Long, Long> ownerByItem = new LinkedHashMap<>();
+        for (int i = 0; i < options.getBookings(); i++) {
+            Dataset.SeededItem item = dataset.randomItem(random);
+            LocalDateTime start = dataset.nextBookingStart();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("itemId", item.getId());
+            entry.put("start", start);
+            entry.put("end", start.plusHours(2));
+            entriesByBooker.computeIfAbsent(dataset.randomBooker(random, item), booker -> new ArrayList<>())
+                    .add(entry);
+            ownerByItem.put(item.getId(), item.getOwnerId());
+        }
+        List<Dataset.WaitingBooking> created = new ArrayList<>();
+        entriesByBooker.forEach((bookerId, entries) -> {
+            for (int from = 0; from < entries.size(); from += BOOKING_BATCH_SIZE) {
+                List<Map<String, Object>> batch = entries.subList(from, Math.min(entries.size(), from + BOOKING_BATCH_SIZE));
+                for (JsonNode result : http.expectJson(http.post("/bookings/batch", bookerId, batch))) {
+                    if (result.get("created").asBoolean()) {
+                        JsonNode booking = result.get("booking");
+                        created.add(new Dataset.WaitingBooking(booking.get("id").asLong(),
+                                ownerByItem.get(booking.get("item").get("id").asLong())));
+                    }
+                }
+            }
+        });
+        for (Dataset.WaitingBooking booking : created) {
+            if (random.nextBoolean()) {
+                http.expectJson(http.patch("/bookings/" + booking.getId() + "?approved=true", booking.getOwnerId()));
+            } else {
+                dataset.addWaitingBooking(booking.getId(), booking.getOwnerId());
+            }
+        }
+    }
+}
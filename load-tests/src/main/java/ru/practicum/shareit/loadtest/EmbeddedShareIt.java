@@ -0,0 +1,131 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.loader.LaunchedURLClassLoader;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class EmbeddedShareIt {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String TOMCAT_URL_HANDLER_FACTORY =
+            "org.apache.catalina.webresources.TomcatURLStreamHandlerFactory";
+
+    private final String gatewayUrl;
+
+    private EmbeddedShareIt(String gatewayUrl) {
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    public static EmbeddedShareIt start(LoadTestOptions options) throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        String serverUrl = "http://localhost:" + serverPort;
+        String gatewayUrl = "http://localhost:" + gatewayPort;
+
+        AtomicReference<Throwable> server = launch("shareit-server", options.getServerJar(),
+                "--server.port=" + serverPort,
+                "--spring.profiles.active=test",
+                "--shareit.bookings.outbox.relay.enabled=true",
+                "--shareit.threads.mode=" + options.getThreads(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN");
+        awaitHealthy(serverUrl, server);
+        AtomicReference<Throwable> gateway = launch("shareit-gateway", options.getGatewayJar(),
+                "--server.port=" + gatewayPort,
+                "--shareit-server.url=" + serverUrl,
+                "--shareit.threads.mode=" + options.getThreads(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        awaitHealthy(gatewayUrl, gateway);
+        return new EmbeddedShareIt(gatewayUrl);
+    }
+
+    public String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    private static AtomicReference<Throwable> launch(String name, Path jar, String... args) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath() + " not found, run mvn package first");
+        }
+        JarFileArchive archive = new JarFileArchive(jar.toFile());
+        String mainClass = archive.getManifest().getMainAttributes().getValue("Start-Class");
+        ClassLoader classLoader = new LaunchedURLClassLoader(true, archive, nestedArchiveUrls(archive),
+                ClassLoader.getPlatformClassLoader());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread launcher = new Thread(() -> {
+            try {
+                classLoader.loadClass(TOMCAT_URL_HANDLER_FACTORY).getMethod("disable").invoke(null);
+                classLoader.loadClass(mainClass)
+                        .getMethod("main", String[].class)
+                        .invoke(null, (Object) args);
+            } catch (ReflectiveOperationException e) {
+                failure.set(e.getCause() != null ? e.getCause() : e);
+            }
+        }, name + "-launcher");
+        launcher.setContextClassLoader(classLoader);
+        launcher.setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+        launcher.start();
+        return failure;
+    }
+
+    private static URL[] nestedArchiveUrls(JarFileArchive archive) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        Iterator<Archive> nested = archive.getNestedArchives(
+                entry -> entry.isDirectory()
+                        ? entry.getName().equals("BOOT-INF/classes/")
+                        : entry.getName().startsWith("BOOT-INF/lib/"),
+                entry -> true);
+        while (nested.hasNext()) {
+            urls.add(nested.next().getUrl());
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    private static void awaitHealthy(String baseUrl, AtomicReference<Throwable> launchFailure)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                if (launchFailure.get() != null) {
+                    throw new IllegalStateException(baseUrl + " failed to start", launchFailure.get());
+                }
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException(baseUrl + " did not become healthy in " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String endpoint;
+
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+    private long successful;
+
+    private long clientErrors;
+
+    private long errors;
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 200 && status < 400) {
+            successful++;
+        } else if (status >= 400 && status < 500) {
+            clientErrors++;
+        } else {
+            errors++;
+        }
+    }
+
+    public void add(EndpointStats other) {
+        latencies.add(other.latencies);
+        successful += other.successful;
+        clientErrors += other.clientErrors;
+        errors += other.errors;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequests() {
+        return latencies.getTotalCount();
+    }
+
+    public long getSuccessful() {
+        return successful;
+    }
+
+    public long getClientErrors() {
+        return clientErrors;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    public double maxMillis() {
+        return latencies.getMaxValue() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LoadReport {
+
+    private static final String ROW = "%-24s %9s %9s %9s %7s %7s %9s %9s %9s %9s%n";
+
+    private final Workload workload;
+
+    private final String threads;
+
+    private final int concurrency;
+
+    private final Duration duration;
+
+    private final Collection<EndpointStats> endpoints;
+
+    private final EndpointStats total = new EndpointStats("TOTAL");
+
+    public LoadReport(Workload workload,
+                      String threads,
+                      int concurrency,
+                      Duration duration,
+                      Collection<EndpointStats> endpoints) {
+        this.workload = workload;
+        this.threads = threads;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.endpoints = endpoints;
+        endpoints.forEach(total::add);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nWorkload %s: %d clients, %s threads, %d s measured%n",
+                workload, concurrency, threads, duration.toSeconds());
+        out.printf(ROW, "Endpoint", "Requests", "Req/s", "2xx/3xx", "4xx", "Errors",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach(stats -> printRow(out, stats));
+        printRow(out, total);
+    }
+
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        endpoints.forEach(stats -> rows.add(row(stats)));
+        rows.add(row(total));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("workload", workload.name().toLowerCase());
+        report.put("threads", threads);
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("endpoints", rows);
+        return report;
+    }
+
+    private void printRow(PrintStream out, EndpointStats stats) {
+        out.printf(ROW, stats.getEndpoint(), stats.getRequests(), format(throughput(stats)),
+                stats.getSuccessful(), stats.getClientErrors(), stats.getErrors(),
+                format(stats.percentileMillis(50)), format(stats.percentileMillis(99)),
+                format(stats.percentileMillis(99.9)), format(stats.maxMillis()));
+    }
+
+    private Map<String, Object> row(EndpointStats stats) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", stats.getEndpoint());
+        row.put("requests", stats.getRequests());
+        row.put("throughput", throughput(stats));
+        row.put("successful", stats.getSuccessful());
+        row.put("clientErrors", stats.getClientErrors());
+        row.put("errors", stats.getErrors());
+        row.put("p50Millis", stats.percentileMillis(50));
+        row.put("p99Millis", stats.percentileMillis(99));
+        row.put("p999Millis", stats.percentileMillis(99.9));
+        row.put("maxMillis", stats.maxMillis());
+        return row;
+    }
+
+    private double throughput(EndpointStats stats) {
+        return stats.getRequests() / (duration.toMillis() / 1000.0);
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
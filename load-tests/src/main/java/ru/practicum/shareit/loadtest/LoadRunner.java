@@ -0,0 +1,75 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LoadRunner {
+
+    private final ShareItHttp http;
+
+    private final Dataset dataset;
+
+    private final LoadTestOptions options;
+
+    public LoadRunner(ShareItHttp http, Dataset dataset, LoadTestOptions options) {
+        this.http = http;
+        this.dataset = dataset;
+        this.options = options;
+    }
+
+    public LoadReport run(Workload workload) throws InterruptedException, ExecutionException {
+        long measureFrom = System.nanoTime() + options.getWarmup().toNanos();
+        long measureUntil = measureFrom + options.getDuration().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        try {
+            List<Future<Map<String, EndpointStats>>> results = new ArrayList<>();
+            for (int i = 0; i < options.getConcurrency(); i++) {
+                SplittableRandom random = new SplittableRandom(options.getSeed() * 31 + workload.ordinal() * 1_000 + i);
+                results.add(workers.submit(() -> drive(workload, random, measureFrom, measureUntil)));
+            }
+            Map<String, EndpointStats> merged = new TreeMap<>();
+            for (Future<Map<String, EndpointStats>> result : results) {
+                result.get().forEach((endpoint, stats) ->
+                        merged.computeIfAbsent(endpoint, EndpointStats::new).add(stats));
+            }
+            return new LoadReport(workload, options.getThreads(), options.getConcurrency(), options.getDuration(),
+                    merged.values());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<String, EndpointStats> drive(Workload workload,
+                                             SplittableRandom random,
+                                             long measureFrom,
+                                             long measureUntil) {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        long started;
+        while ((started = System.nanoTime()) < measureUntil) {
+            Operation operation = workload.pick(random);
+            int status;
+            try {
+                HttpResponse<String> response = operation.execute(http, dataset, random);
+                if (response == null) {
+                    continue;
+                }
+                status = response.statusCode();
+            } catch (RuntimeException e) {
+                status = 0;
+            }
+            long finished = System.nanoTime();
+            if (started >= measureFrom && finished <= measureUntil) {
+                stats.computeIfAbsent(operation.getEndpoint(), EndpointStats::new).record(status, finished - started);
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int status = 0;
+        try {
+            EmbeddedShareIt shareIt = EmbeddedShareIt.start(options);
+            System.out.println("ShareIt gateway is up at " + shareIt.getGatewayUrl());
+            ShareItHttp http = new ShareItHttp(shareIt.getGatewayUrl());
+            Dataset dataset = new DatasetSeeder(http, options, System.out).seed();
+            List<Map<String, Object>> reports = new ArrayList<>();
+            for (Workload workload : options.getWorkloads()) {
+                LoadReport report = new LoadRunner(http, dataset, options).run(workload);
+                report.print(System.out);
+                reports.add(report.toMap());
+            }
+            if (options.getReport() != null) {
+                Files.writeString(options.getReport(), http.json(reports));
+                System.out.println("\nReport written to " + options.getReport().toAbsolutePath());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        System.exit(status);
+    }
+}
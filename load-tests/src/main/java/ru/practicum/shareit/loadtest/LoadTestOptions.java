@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class LoadTestOptions {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT-exec.jar"),
+            Map.entry("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"),
+            Map.entry("workloads", "search,booking,dashboard,mixed"),
+            Map.entry("duration", "30"),
+            Map.entry("warmup", "10"),
+            Map.entry("concurrency", "16"),
+            Map.entry("threads", "platform"),
+            Map.entry("users", "100"),
+            Map.entry("items", "2000"),
+            Map.entry("requests", "200"),
+            Map.entry("bookings", "5000"),
+            Map.entry("seed", "42"),
+            Map.entry("report", ""));
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ", known: " + DEFAULTS.keySet());
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    public Path getServerJar() {
+        return Path.of(values.get("server-jar"));
+    }
+
+    public Path getGatewayJar() {
+        return Path.of(values.get("gateway-jar"));
+    }
+
+    public List<Workload> getWorkloads() {
+        List<Workload> workloads = new ArrayList<>();
+        for (String name : values.get("workloads").split(",")) {
+            workloads.add(Workload.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        return workloads;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofSeconds(intValue("duration"));
+    }
+
+    public Duration getWarmup() {
+        return Duration.ofSeconds(intValue("warmup"));
+    }
+
+    public int getConcurrency() {
+        return intValue("concurrency");
+    }
+
+    public String getThreads() {
+        String threads = values.get("threads").trim().toLowerCase(Locale.ROOT);
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("Expected --threads=platform or --threads=virtual, got " + threads);
+        }
+        return threads;
+    }
+
+    public int getUsers() {
+        return intValue("users");
+    }
+
+    public int getItems() {
+        return intValue("items");
+    }
+
+    public int getRequests() {
+        return intValue("requests");
+    }
+
+    public int getBookings() {
+        return intValue("bookings");
+    }
+
+    public long getSeed() {
+        return Long.parseLong(values.get("seed"));
+    }
+
+    public Path getReport() {
+        String report = values.get("report");
+        return report.isBlank() ? null : Path.of(report);
+    }
+
+    private int intValue(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+}
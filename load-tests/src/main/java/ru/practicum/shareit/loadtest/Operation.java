@@ -0,0 +1,29 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+
+public final class Operation {
+
+    private final String endpoint;
+
+    private final Call call;
+
+    Operation(String endpoint, Call call) {
+        this.endpoint = endpoint;
+        this.call = call;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public HttpResponse<String> execute(ShareItHttp http, Dataset dataset, SplittableRandom random) {
+        return call.execute(http, dataset, random);
+    }
+
+    @FunctionalInterface
+    interface Call {
+        HttpResponse<String> execute(ShareItHttp http, Dataset dataset, SplittableRandom random);
+    }
+}
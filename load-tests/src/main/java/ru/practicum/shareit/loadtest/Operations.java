@@ -0,0 +1,64 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class Operations {
+
+    private static final String PAGE = "from=0&size=20";
+
+    static final Operation SEARCH_ITEMS = new Operation("GET /items/search", (http, dataset, random) ->
+            http.get("/items/search?text=" + URLEncoder.encode(dataset.randomSearchTerm(random), StandardCharsets.UTF_8)
+                    + "&" + PAGE, dataset.randomUser(random)));
+
+    static final Operation GET_ITEM = new Operation("GET /items/{id}", (http, dataset, random) ->
+            http.get("/items/" + dataset.randomItem(random).getId(), dataset.randomUser(random)));
+
+    static final Operation OWNER_ITEMS = new Operation("GET /items", (http, dataset, random) ->
+            http.get("/items?" + PAGE, dataset.randomOwner(random)));
+
+    static final Operation CREATE_BOOKING = new Operation("POST /bookings", (http, dataset, random) -> {
+        Dataset.SeededItem item = dataset.randomItem(random);
+        LocalDateTime start = dataset.nextBookingStart();
+        Map<String, Object> booking = new LinkedHashMap<>();
+        booking.put("itemId", item.getId());
+        booking.put("start", start);
+        booking.put("end", start.plusHours(2));
+        HttpResponse<String> response = http.post("/bookings", dataset.randomBooker(random, item), booking);
+        if (response.statusCode() == 200) {
+            JsonNode created = http.readJson(response.body());
+            dataset.addWaitingBooking(created.get("id").asLong(), item.getOwnerId());
+        }
+        return response;
+    });
+
+    static final Operation APPROVE_BOOKING = new Operation("PATCH /bookings/{id}", (http, dataset, random) -> {
+        Dataset.WaitingBooking booking = dataset.pollWaitingBooking();
+        if (booking == null) {
+            return null;
+        }
+        return http.patch("/bookings/" + booking.getId() + "?approved=" + random.nextBoolean(), booking.getOwnerId());
+    });
+
+    static final Operation BOOKER_BOOKINGS = new Operation("GET /bookings", (http, dataset, random) ->
+            http.get("/bookings?state=ALL&" + PAGE, dataset.randomUser(random)));
+
+    static final Operation OWNER_BOOKINGS = new Operation("GET /bookings/owner", (http, dataset, random) ->
+            http.get("/bookings/owner?state=" + (random.nextBoolean() ? "ALL" : "WAITING") + "&" + PAGE,
+                    dataset.randomOwner(random)));
+
+    static final Operation OWN_REQUESTS = new Operation("GET /requests", (http, dataset, random) ->
+            http.get("/requests", dataset.randomUser(random)));
+
+    static final Operation OTHER_REQUESTS = new Operation("GET /requests/all", (http, dataset, random) ->
+            http.get("/requests/all?" + PAGE, dataset.randomUser(random)));
+
+    private Operations() {
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.SplittableRandom;
+
+public enum Workload {
+    SEARCH(new Operation[]{Operations.SEARCH_ITEMS, Operations.GET_ITEM, Operations.OWNER_ITEMS},
+            new int[]{70, 20, 10}),
+    BOOKING(new Operation[]{Operations.CREATE_BOOKING, Operations.APPROVE_BOOKING,
+            Operations.BOOKER_BOOKINGS, Operations.OWNER_BOOKINGS},
+            new int[]{40, 20, 25, 15}),
+    DASHBOARD(new Operation[]{Operations.OWNER_ITEMS, Operations.OWNER_BOOKINGS,
+            Operations.OWN_REQUESTS, Operations.OTHER_REQUESTS},
+            new int[]{30, 40, 15, 15}),
+    MIXED(new Operation[]{Operations.SEARCH_ITEMS, Operations.GET_ITEM, Operations.OWNER_ITEMS,
+            Operations.CREATE_BOOKING, Operations.APPROVE_BOOKING, Operations.BOOKER_BOOKINGS,
+            Operations.OWNER_BOOKINGS, Operations.OWN_REQUESTS, Operations.OTHER_REQUESTS},
+            new int[]{30, 15, 10, 10, 5, 10, 10, 5, 5});
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    Workload(Operation[] operations, int[] weights) {
+        this.operations = operations;
+        this.cumulativeWeights = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Operation pick(SplittableRandom random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -1,33 +1,59 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.PageCursor.withNextCursor;
+
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
     private final BookingServiceImpl bookingServiceImpl;
 
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingController(BookingServiceImpl bookingServiceImpl) {
+    public BookingController(BookingServiceImpl bookingServiceImpl,
+                             ObjectMapper objectMapper) {
         this.bookingServiceImpl = bookingServiceImpl;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
+    @QueryBudget(5)
     @ResponseBody
     public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                     @RequestBody SimpleBookingDto simpleBookingDto) {
         return bookingServiceImpl.createBooking(userId, simpleBookingDto);
     }
 
+    @PostMapping("/batch")
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    @ResponseBody
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody List<SimpleBookingDto> simpleBookingDtos) {
+        return bookingServiceImpl.createBookings(userId, simpleBookingDtos);
+    }
+
     @PatchMapping("{bookingId}")
+    @QueryBudget(8)
     @ResponseBody
     public ItemWithBookingDto updateBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                             @PathVariable Long bookingId,
@@ -36,24 +62,55 @@ public class BookingController {
     }
 
     @GetMapping("{bookingId}")
+    @QueryBudget(4)
     public ItemWithBookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId) {
         return bookingServiceImpl.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public List<ItemWithBookingDto> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                           @RequestParam(required = false) String state,
-                                                           @RequestParam(required = false) Integer from,
-                                                           @RequestParam(required = false) Integer size) {
-        return bookingServiceImpl.getAllBookingsByUserId(userId, state, from, size);
+    @QueryBudget(3)
+    public ResponseEntity<List<ItemWithBookingDto>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                           @RequestParam(required = false) String state,
+                                                                           @RequestParam(required = false) Integer from,
+                                                                           @RequestParam(required = false) Integer size,
+                                                                           @RequestParam(required = false) String cursor) {
+        List<ItemWithBookingDto> bookings = cursor == null
+                ? bookingServiceImpl.getAllBookingsByUserId(userId, state, from, size)
+                : bookingServiceImpl.getAllBookingsByUserIdAfter(userId, state, PageCursor.decode(cursor), size);
+        return withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping("/owner/export")
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    public void exportBookingsForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        bookingServiceImpl.exportBookingsForOwner(userId, chunk -> {
+            try {
+                for (ItemWithBookingDto booking : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(booking));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @GetMapping("/owner")
-    public List<ItemWithBookingDto> getAllBookingsForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                           @RequestParam(required = false) String state,
-                                                           @RequestParam(required = false) Integer from,
-                                                           @RequestParam(required = false) Integer size) {
-        return bookingServiceImpl.getAllBookingsForOwner(userId, state, from, size);
+    @QueryBudget(3)
+    public ResponseEntity<List<ItemWithBookingDto>> getAllBookingsForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                           @RequestParam(required = false) String state,
+                                                                           @RequestParam(required = false) Integer from,
+                                                                           @RequestParam(required = false) Integer size,
+                                                                           @RequestParam(required = false) String cursor) {
+        List<ItemWithBookingDto> bookings = cursor == null
+                ? bookingServiceImpl.getAllBookingsForOwner(userId, state, from, size)
+                : bookingServiceImpl.getAllBookingsForOwnerAfter(userId, state, PageCursor.decode(cursor), size);
+        return withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 }
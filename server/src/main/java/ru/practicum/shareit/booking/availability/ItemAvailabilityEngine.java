@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemAvailabilityEngine {
+
+    private static final Set<BookingState> TRACKED_STATES = Set.of(BookingState.APPROVED, BookingState.WAITING);
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, ItemCalendar> calendars;
+
+    public ItemAvailabilityEngine(BookingRepository bookingRepository,
+                                  @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                  @Value("${shareit.availability.expire-after-write:10s}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return calendar(itemId).isFree(from, to);
+    }
+
+    public List<Booking> bookedBetween(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return calendar(itemId).bookedBetween(from, to);
+    }
+
+    public Set<Long> findFree(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        return calendars.getAll(itemIds, this::loadCalendars).entrySet().stream()
+                .filter(calendar -> calendar.getValue().isFree(from, to))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public void onBookingSaved(Booking booking) {
+        Long itemId = booking.getItemId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            calendars.invalidate(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                calendars.invalidate(itemId);
+            }
+        });
+    }
+
+    private ItemCalendar calendar(Long itemId) {
+        return calendars.get(itemId, id -> loadCalendars(Set.of(id)).get(id));
+    }
+
+    private Map<Long, ItemCalendar> loadCalendars(Iterable<? extends Long> itemIds) {
+        Map<Long, ItemCalendar> loaded = new HashMap<>();
+        itemIds.forEach(itemId -> loaded.put(itemId, new ItemCalendar()));
+        bookingRepository.findAllByItemIdInAndStatusIn(loaded.keySet(), TRACKED_STATES)
+                .forEach(booking -> loaded.get(booking.getItemId()).put(booking));
+        return loaded;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ItemCalendar {
+
+    private final IntervalTree approved = new IntervalTree();
+
+    private final IntervalTree waiting = new IntervalTree();
+
+    private final Map<Long, Booking> bookings = new HashMap<>();
+
+    synchronized void put(Booking booking) {
+        remove(booking.getId());
+        IntervalTree tree = treeFor(booking.getStatus());
+        if (tree == null || booking.getStart() == null || booking.getEnd() == null) {
+            return;
+        }
+        Booking snapshot = Booking.builder()
+                .id(booking.getId())
+                .itemId(booking.getItemId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .build();
+        bookings.put(snapshot.getId(), snapshot);
+        tree.insert(snapshot.getId(), snapshot.getStart(), snapshot.getEnd());
+    }
+
+    synchronized boolean isFree(LocalDateTime from, LocalDateTime to) {
+        return !approved.overlaps(from, to);
+    }
+
+    synchronized List<Booking> bookedBetween(LocalDateTime from, LocalDateTime to) {
+        List<Booking> booked = new ArrayList<>();
+        for (IntervalTree tree : List.of(approved, waiting)) {
+            tree.overlapping(from, to).forEach(interval -> booked.add(bookings.get(interval.getId())));
+        }
+        booked.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId));
+        return booked;
+    }
+
+    private void remove(Long bookingId) {
+        Booking existing = bookings.remove(bookingId);
+        if (existing != null) {
+            treeFor(existing.getStatus()).remove(existing.getId(), existing.getStart());
+        }
+    }
+
+    private IntervalTree treeFor(BookingState status) {
+        if (status == BookingState.APPROVED) {
+            return approved;
+        }
+        if (status == BookingState.WAITING) {
+            return waiting;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class BookingBatchResultDto {
+    private Integer index;
+    private Boolean created;
+    private BookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto created(int index, BookingDto booking) {
+        return new BookingBatchResultDto(index, true, booking, null);
+    }
+
+    public static BookingBatchResultDto rejected(int index, String error) {
+        return new BookingBatchResultDto(index, false, null, error);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder
+public class BookingEventDto {
+    private Long id;
+    private Long bookingId;
+    private Long itemId;
+    private Long bookerId;
+    private long bookingVersion;
+    private BookingState previousStatus;
+    private BookingState status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime occurredAt;
+}
@@ -2,10 +2,15 @@ package ru.practicum.shareit.booking.mapper;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.outbox.BookingEvent;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 @Component
 public class BookingMapper {
 
@@ -53,4 +58,33 @@ public class BookingMapper {
                 .id(bookingDto.getBooker().getId())
                 .build();
     }
+
+    public static BookingEvent toBookingEvent(Booking booking, BookingState previousStatus, LocalDateTime occurredAt) {
+        return BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBooker())
+                .bookingVersion(booking.getVersion())
+                .previousStatus(previousStatus)
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    public static BookingEventDto toBookingEventDto(BookingEvent bookingEvent) {
+        return BookingEventDto.builder()
+                .id(bookingEvent.getId())
+                .bookingId(bookingEvent.getBookingId())
+                .itemId(bookingEvent.getItemId())
+                .bookerId(bookingEvent.getBookerId())
+                .bookingVersion(bookingEvent.getBookingVersion())
+                .previousStatus(bookingEvent.getPreviousStatus())
+                .status(bookingEvent.getStatus())
+                .start(bookingEvent.getStart())
+                .end(bookingEvent.getEnd())
+                .occurredAt(bookingEvent.getOccurredAt())
+                .build();
+    }
 }
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @Table(name = "booking")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_id_seq")
+    @SequenceGenerator(name = "booking_id_seq", sequenceName = "booking_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -38,4 +39,8 @@ public class Booking {
     @Column(name = "status")
     private BookingState status;
 
+    @Version
+    @Column(name = "version")
+    private long version;
+
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@ToString
+@Builder
+@Entity
+@Table(name = "booking_events")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_id_seq")
+    @SequenceGenerator(name = "booking_events_id_seq", sequenceName = "booking_events_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "booking_version")
+    private long bookingVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private BookingState previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingState status;
+
+    @Column(name = "start_date", columnDefinition = "TIMESTAMP")
+    private LocalDateTime start;
+
+    @Column(name = "end_date", columnDefinition = "TIMESTAMP")
+    private LocalDateTime end;
+
+    @Column(name = "occurred_at", columnDefinition = "TIMESTAMP")
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.bookings.outbox.log-file")
+public class BookingEventFileLog implements BookingEventSubscriber {
+
+    private final ObjectMapper objectMapper;
+
+    private final Path file;
+
+    public BookingEventFileLog(ObjectMapper objectMapper,
+                               @Value("${shareit.bookings.outbox.log-file}") String file) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(file).toAbsolutePath();
+    }
+
+    @Override
+    public synchronized void onEvents(List<BookingEventDto> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (BookingEventDto event : events) {
+                lines.write(objectMapper.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
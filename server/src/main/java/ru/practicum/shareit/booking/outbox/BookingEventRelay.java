@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BookingEventRelay {
+
+    public static final String RELAYED_METRIC_NAME = "shareit.bookings.outbox.relayed";
+
+    public static final String FAILED_METRIC_NAME = "shareit.bookings.outbox.failed";
+
+    public static final String LAG_METRIC_NAME = "shareit.bookings.outbox.lag";
+
+    public static final String OLDEST_PENDING_METRIC_NAME = "shareit.bookings.outbox.oldest.pending";
+
+    private final BookingEventRepository bookingEventRepository;
+
+    private final List<BookingEventSubscriber> subscribers;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Counter relayed;
+
+    private final Counter failed;
+
+    private final Timer lag;
+
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+    public BookingEventRelay(BookingEventRepository bookingEventRepository,
+                             List<BookingEventSubscriber> subscribers,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.bookings.outbox.relay.batch-size:500}") int batchSize) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder(RELAYED_METRIC_NAME)
+                .description("Booking events delivered from the outbox to subscribers")
+                .register(meterRegistry);
+        this.failed = Counter.builder(FAILED_METRIC_NAME)
+                .description("Outbox relay batches that a subscriber failed to accept")
+                .register(meterRegistry);
+        this.lag = Timer.builder(LAG_METRIC_NAME)
+                .description("Time from a booking state change to its delivery by the outbox relay")
+                .register(meterRegistry);
+        Gauge.builder(OLDEST_PENDING_METRIC_NAME, oldestPending, BookingEventRelay::secondsSince)
+                .description("Age of the oldest booking event the relay has seen but not delivered yet")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (subscribers.isEmpty()) {
+            log.warn("No booking event subscribers are configured, the outbox will not be drained");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.outbox.relay.interval-ms:1000}")
+    public void relay() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            int delivered;
+            do {
+                delivered = relayBatch();
+            } while (delivered == batchSize);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Booking event relay failed, the batch stays in the outbox", e);
+        }
+    }
+
+    public int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<BookingEvent> batch = bookingEventRepository.lockOldest(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                oldestPending.set(null);
+                return 0;
+            }
+            oldestPending.set(batch.get(0).getOccurredAt());
+            List<BookingEventDto> events = batch.stream()
+                    .map(BookingMapper::toBookingEventDto)
+                    .collect(Collectors.toList());
+            subscribers.forEach(subscriber -> subscriber.onEvents(events));
+            bookingEventRepository.deleteAllInBatch(batch);
+            LocalDateTime now = LocalDateTime.now();
+            events.forEach(event -> lag.record(Duration.between(event.getOccurredAt(), now)));
+            relayed.increment(events.size());
+            if (events.size() < batchSize) {
+                oldestPending.set(null);
+            }
+            return events.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    private static double secondsSince(AtomicReference<LocalDateTime> occurredAt) {
+        LocalDateTime oldest = occurredAt.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
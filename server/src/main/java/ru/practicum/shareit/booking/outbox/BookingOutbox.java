@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.outbox;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingEvent;
+
+@Component
+public class BookingOutbox {
+
+    private final BookingEventRepository bookingEventRepository;
+
+    public BookingOutbox(BookingEventRepository bookingEventRepository) {
+        this.bookingEventRepository = bookingEventRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingsCreated(List<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        bookingEventRepository.saveAll(bookings.stream()
+                .map(booking -> toBookingEvent(booking, null, now))
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Booking booking, BookingState previousStatus) {
+        bookingEventRepository.save(toBookingEvent(booking, previousStatus, LocalDateTime.now()));
+    }
+}
@@ -3,28 +3,101 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    String BOOKER_PAGE_AFTER = "SELECT b FROM Booking b " +
+            "WHERE b.booker = :booker_id " +
+            "AND (b.start < :cursor_start OR (b.start = :cursor_start AND b.id < :cursor_id)) ";
+
+    String OWNER_PAGE_AFTER = "SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id " +
+            "AND (b.start < :cursor_start OR (b.start = :cursor_start AND b.id < :cursor_id)) ";
+
     @Query("SELECT b FROM Booking b WHERE b.itemId = :item_id AND b.end < :end")
     Booking findBookingByItemIdAndEndIsAfter(@Param("item_id") Long itemId, LocalDateTime end);
 
     Booking findBookingById(@Param("booking_id") Long bookingId);
 
+    List<Booking> findAllByItemIdInAndStatusIn(Collection<Long> itemIds, Collection<BookingState> statuses);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.itemId = :item_id AND b.status = 'APPROVED' AND b.id <> :booking_id " +
+            "AND b.start < :end AND b.end > :start")
+    boolean existsApprovedOverlap(@Param("item_id") Long itemId,
+                                  @Param("booking_id") Long bookingId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
     List<Booking> findBookingsByBooker(Long userId, Pageable pageable);
 
+    List<Booking> findBookingsByBookerAndEndIsBefore(Long userId, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findBookingsByBookerAndStartIsAfter(Long userId, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findBookingsByBookerAndStartIsBeforeAndEndIsAfter(Long userId,
+                                                                    LocalDateTime start,
+                                                                    LocalDateTime end,
+                                                                    Pageable pageable);
+
+    List<Booking> findBookingsByBookerAndStatus(Long userId, BookingState status, Pageable pageable);
+
     @Query("SELECT b FROM Booking b " +
             "LEFT JOIN Item i ON b.itemId = i.id " +
             "WHERE i.owner = :owner_id")
     List<Booking> findBookingsByOwnerId(@Param("owner_id") Long userId, Pageable pageable);
 
+    @Query("SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id AND b.end < :now")
+    List<Booking> findPastBookingsByOwnerId(@Param("owner_id") Long userId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id AND b.start > :now")
+    List<Booking> findFutureBookingsByOwnerId(@Param("owner_id") Long userId,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id AND b.start < :now AND b.end > :now")
+    List<Booking> findCurrentBookingsByOwnerId(@Param("owner_id") Long userId,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id AND b.status = :status")
+    List<Booking> findBookingsByOwnerIdAndStatus(@Param("owner_id") Long userId,
+                                                 @Param("status") BookingState status,
+                                                 Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT b FROM Booking b " +
+            "JOIN Item i ON b.itemId = i.id " +
+            "WHERE i.owner = :owner_id " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamBookingsByOwnerId(@Param("owner_id") Long userId);
+
     @Query(value = "SELECT * FROM booking b " +
             "LEFT JOIN items i on i.id = b.item_id " +
             "WHERE b.item_id = :id AND (b.booker_id = :booker_id OR i.owner_id = :booker_id) " +
@@ -36,4 +109,80 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "WHERE b.item_id = :id AND (b.booker_id = :booker_id OR i.owner_id = :booker_id) " +
             "ORDER BY b.start_date LIMIT 1", nativeQuery = true)
     Booking findLastBooking(@Param("id") Long itemId, @Param("booker_id") Long userId);
+
+    @Query(value = "SELECT r.id, r.start_date, r.end_date, r.item_id, r.booker_id, r.status, r.version FROM (" +
+            "SELECT b.*, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS first_rank, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS last_rank " +
+            "FROM booking b WHERE b.item_id IN (:item_ids)) r " +
+            "WHERE r.first_rank = 1 OR r.last_rank = 1", nativeQuery = true)
+    List<Booking> findFirstAndLastBookingsByItemIds(@Param("item_ids") Collection<Long> itemIds);
+
+    @Query(BOOKER_PAGE_AFTER)
+    List<Booking> findBookerBookingsAfter(@Param("booker_id") Long userId,
+                                          @Param("cursor_start") LocalDateTime cursorStart,
+                                          @Param("cursor_id") Long cursorId,
+                                          Pageable pageable);
+
+    @Query(BOOKER_PAGE_AFTER + "AND b.end < :now")
+    List<Booking> findPastBookerBookingsAfter(@Param("booker_id") Long userId,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("cursor_start") LocalDateTime cursorStart,
+                                              @Param("cursor_id") Long cursorId,
+                                              Pageable pageable);
+
+    @Query(BOOKER_PAGE_AFTER + "AND b.start > :now")
+    List<Booking> findFutureBookerBookingsAfter(@Param("booker_id") Long userId,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("cursor_start") LocalDateTime cursorStart,
+                                                @Param("cursor_id") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(BOOKER_PAGE_AFTER + "AND b.start < :now AND b.end > :now")
+    List<Booking> findCurrentBookerBookingsAfter(@Param("booker_id") Long userId,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("cursor_start") LocalDateTime cursorStart,
+                                                 @Param("cursor_id") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(BOOKER_PAGE_AFTER + "AND b.status = :status")
+    List<Booking> findBookerBookingsByStatusAfter(@Param("booker_id") Long userId,
+                                                  @Param("status") BookingState status,
+                                                  @Param("cursor_start") LocalDateTime cursorStart,
+                                                  @Param("cursor_id") Long cursorId,
+                                                  Pageable pageable);
+
+    @Query(OWNER_PAGE_AFTER)
+    List<Booking> findOwnerBookingsAfter(@Param("owner_id") Long userId,
+                                         @Param("cursor_start") LocalDateTime cursorStart,
+                                         @Param("cursor_id") Long cursorId,
+                                         Pageable pageable);
+
+    @Query(OWNER_PAGE_AFTER + "AND b.end < :now")
+    List<Booking> findPastOwnerBookingsAfter(@Param("owner_id") Long userId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("cursor_start") LocalDateTime cursorStart,
+                                             @Param("cursor_id") Long cursorId,
+                                             Pageable pageable);
+
+    @Query(OWNER_PAGE_AFTER + "AND b.start > :now")
+    List<Booking> findFutureOwnerBookingsAfter(@Param("owner_id") Long userId,
+                                               @Param("now") LocalDateTime now,
+                                               @Param("cursor_start") LocalDateTime cursorStart,
+                                               @Param("cursor_id") Long cursorId,
+                                               Pageable pageable);
+
+    @Query(OWNER_PAGE_AFTER + "AND b.start < :now AND b.end > :now")
+    List<Booking> findCurrentOwnerBookingsAfter(@Param("owner_id") Long userId,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("cursor_start") LocalDateTime cursorStart,
+                                                @Param("cursor_id") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(OWNER_PAGE_AFTER + "AND b.status = :status")
+    List<Booking> findOwnerBookingsByStatusAfter(@Param("owner_id") Long userId,
+                                                 @Param("status") BookingState status,
+                                                 @Param("cursor_start") LocalDateTime cursorStart,
+                                                 @Param("cursor_id") Long cursorId,
+                                                 Pageable pageable);
 }
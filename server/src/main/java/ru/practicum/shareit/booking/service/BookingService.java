@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, SimpleBookingDto simpleBookingDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<SimpleBookingDto> simpleBookingDtos);
+
     ItemWithBookingDto updateBooking(Long userId, Long bookingId, String approved);
 
     ItemWithBookingDto getBookingById(Long userId, Long bookingId);
@@ -22,4 +27,16 @@ public interface BookingService {
                                                     String state,
                                                     Integer from,
                                                     Integer size);
+
+    void exportBookingsForOwner(Long userId, Consumer<List<ItemWithBookingDto>> chunkConsumer);
+
+    List<ItemWithBookingDto> getAllBookingsByUserIdAfter(Long userId,
+                                                         String state,
+                                                         PageCursor cursor,
+                                                         Integer size);
+
+    List<ItemWithBookingDto> getAllBookingsForOwnerAfter(Long userId,
+                                                         String state,
+                                                         PageCursor cursor,
+                                                         Integer size);
 }
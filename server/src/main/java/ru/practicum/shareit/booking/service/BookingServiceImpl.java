@@ -1,69 +1,165 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityEngine;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
-import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.*;
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemWithBookingDto;
 
 @Service
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort BOOKING_ORDER = Sort.by(Sort.Direction.DESC, "start", "id");
+
     private final ItemRepository itemRepository;
-    private final UserServiceImpl userServiceImpl;
+    private final UserExistenceService userExistenceService;
     private final BookingRepository bookingRepository;
     private final ItemServiceImpl itemServiceImpl;
+    private final ItemAvailabilityEngine itemAvailabilityEngine;
+    private final BookingOutbox bookingOutbox;
+    private final EntityManager entityManager;
+    private final int maxBatchSize;
+    private final int exportChunkSize;
 
     public BookingServiceImpl(ItemRepository itemRepository,
-                              UserServiceImpl userServiceImpl,
+                              UserExistenceService userExistenceService,
                               BookingRepository bookingRepository,
-                              ItemServiceImpl itemServiceImpl) {
+                              ItemServiceImpl itemServiceImpl,
+                              ItemAvailabilityEngine itemAvailabilityEngine,
+                              BookingOutbox bookingOutbox,
+                              EntityManager entityManager,
+                              @Value("${shareit.bookings.batch.max-size:500}") int maxBatchSize,
+                              @Value("${shareit.bookings.export.chunk-size:500}") int exportChunkSize) {
         this.itemRepository = itemRepository;
-        this.userServiceImpl = userServiceImpl;
+        this.userExistenceService = userExistenceService;
         this.bookingRepository = bookingRepository;
         this.itemServiceImpl = itemServiceImpl;
+        this.itemAvailabilityEngine = itemAvailabilityEngine;
+        this.bookingOutbox = bookingOutbox;
+        this.entityManager = entityManager;
+        this.maxBatchSize = maxBatchSize;
+        this.exportChunkSize = exportChunkSize;
     }
 
     @Override
+    @Transactional
     public BookingDto createBooking(Long userId, SimpleBookingDto simpleBookingDto) {
         validateUser(userId);
+        ItemDto itemDto = validateForBookingCreation(userId, simpleBookingDto);
         BookingDto bookingDto = new BookingDto();
-        bookingDto.setItem(toBookingItemDto(validateForBookingCreation(userId, simpleBookingDto)));
+        bookingDto.setItem(toBookingItemDto(itemDto));
         bookingDto.setStart(simpleBookingDto.getStart());
         bookingDto.setEnd(simpleBookingDto.getEnd());
         bookingDto.setStatus(BookingState.WAITING);
         bookingDto.setBooker(new BookingDto.BookerDto(userId));
-        return toBookingDto(bookingRepository.save(toBooking(bookingDto)),
-                validateForBookingCreation(userId, simpleBookingDto));
+        Booking booking = bookingRepository.save(toBooking(bookingDto));
+        bookingOutbox.bookingsCreated(List.of(booking));
+        itemAvailabilityEngine.onBookingSaved(booking);
+        return toBookingDto(booking, itemDto);
     }
 
     @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<SimpleBookingDto> simpleBookingDtos) {
+        validateUser(userId);
+        if (simpleBookingDtos == null || simpleBookingDtos.isEmpty() || simpleBookingDtos.size() > maxBatchSize) {
+            throw new ValidationException(String.format("Пакет должен содержать от 1 до %s бронирований.",
+                    maxBatchSize));
+        }
+        Set<Long> itemIds = simpleBookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(SimpleBookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[simpleBookingDtos.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < simpleBookingDtos.size(); i++) {
+            SimpleBookingDto simpleBookingDto = simpleBookingDtos.get(i);
+            String error = validateBatchEntry(userId, simpleBookingDto, items, now);
+            if (error != null) {
+                results[i] = BookingBatchResultDto.rejected(i, error);
+                continue;
+            }
+            acceptedIndexes.add(i);
+            accepted.add(Booking.builder()
+                    .start(simpleBookingDto.getStart())
+                    .end(simpleBookingDto.getEnd())
+                    .itemId(simpleBookingDto.getItemId())
+                    .booker(userId)
+                    .status(BookingState.WAITING)
+                    .build());
+        }
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        if (!saved.isEmpty()) {
+            bookingOutbox.bookingsCreated(saved);
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            itemAvailabilityEngine.onBookingSaved(booking);
+            int index = acceptedIndexes.get(i);
+            results[index] = BookingBatchResultDto.created(index,
+                    toBookingDto(booking, toItemDto(items.get(booking.getItemId()))));
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
     public ItemWithBookingDto updateBooking(Long userId, Long bookingId, String approved) {
         Booking booking = bookingRepository.findBookingById(bookingId);
-        ItemDto itemDto = toItemDto(itemRepository.findAllByOwner(userId).stream()
-                .filter(itemDto1 -> Objects.equals(itemDto1.getId(), booking.getItemId()))
-                .findAny()
-                .orElseThrow(() -> new EntityNotFoundException("Статус бронирования может изменить только владелец")));
+        if (booking == null) {
+            throw new EntityNotFoundException(String.format("Брони с id %s не существует", bookingId));
+        }
+        Item item = itemRepository.findLockedById(booking.getItemId())
+                .orElseThrow(() -> new EntityNotFoundException("Предмета не существует"));
+        if (!Objects.equals(item.getOwner(), userId)) {
+            throw new EntityNotFoundException("Статус бронирования может изменить только владелец");
+        }
+        ItemDto itemDto = toItemDto(item);
         if (approved.equals("true")) {
             approved = "APPROVED";
         } else {
@@ -72,8 +168,15 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().toString().equals(approved)) {
             throw new ValidationException("Нельзя изменить статус на идентичный");
         }
+        if (approved.equals("APPROVED")) {
+            validateNoApprovedOverlap(booking);
+        }
+        BookingState previousStatus = booking.getStatus();
         booking.setStatus(BookingState.valueOf(approved));
-        return toItemWithBookingDto(bookingRepository.save(booking),
+        Booking savedBooking = saveBooking(booking);
+        bookingOutbox.statusChanged(savedBooking, previousStatus);
+        itemAvailabilityEngine.onBookingSaved(savedBooking);
+        return toItemWithBookingDto(savedBooking,
                 itemDto,
                 new BookingDto.BookerDto(booking.getBooker()));
     }
@@ -113,11 +216,88 @@ public class BookingServiceImpl implements BookingService {
         return itemWithBookingDtos;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsForOwner(Long userId, Consumer<List<ItemWithBookingDto>> chunkConsumer) {
+        validateUser(userId);
+        List<Booking> chunk = new ArrayList<>(exportChunkSize);
+        try (Stream<Booking> bookings = bookingRepository.streamBookingsByOwnerId(userId)) {
+            bookings.forEach(booking -> {
+                chunk.add(booking);
+                if (chunk.size() == exportChunkSize) {
+                    exportChunk(chunk, chunkConsumer);
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            exportChunk(chunk, chunkConsumer);
+        }
+    }
+
+    @Override
+    public List<ItemWithBookingDto> getAllBookingsByUserIdAfter(Long userId,
+                                                                String state,
+                                                                PageCursor cursor,
+                                                                Integer size) {
+        validateUser(userId);
+        List<ItemWithBookingDto> itemWithBookingDtos = new ArrayList<>();
+        validateBookingsForBookerAfter(userId, state, itemWithBookingDtos, cursor, size);
+        return itemWithBookingDtos;
+    }
+
+    @Override
+    public List<ItemWithBookingDto> getAllBookingsForOwnerAfter(Long userId,
+                                                                String state,
+                                                                PageCursor cursor,
+                                                                Integer size) {
+        validateUser(userId);
+        List<ItemWithBookingDto> itemWithBookingDtos = new ArrayList<>();
+        validateBookingsForOwnerAfter(userId, state, itemWithBookingDtos, cursor, size);
+        return itemWithBookingDtos;
+    }
+
+    private String validateBatchEntry(Long userId,
+                                      SimpleBookingDto simpleBookingDto,
+                                      Map<Long, Item> items,
+                                      LocalDateTime now) {
+        if (simpleBookingDto == null || simpleBookingDto.getItemId() == null) {
+            return "Предмет не указан.";
+        }
+        Item item = items.get(simpleBookingDto.getItemId());
+        if (item == null) {
+            return String.format("Предмета с id %s не существует.", simpleBookingDto.getItemId());
+        }
+        if (userId.equals(item.getOwner())) {
+            return "Владелец не может бронировать предмет.";
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return "Предмет занят другим пользователем.";
+        }
+        if (simpleBookingDto.getStart() == null || simpleBookingDto.getEnd() == null
+                || !simpleBookingDto.getStart().isBefore(simpleBookingDto.getEnd())
+                || simpleBookingDto.getStart().isBefore(now)) {
+            return "Некорректная дата бронирования";
+        }
+        return null;
+    }
+
+    private void validateNoApprovedOverlap(Booking booking) {
+        if (bookingRepository.existsApprovedOverlap(booking.getItemId(), booking.getId(),
+                booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Предмет уже забронирован на это время.");
+        }
+    }
+
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Предмет уже забронирован на это время.");
+        }
+    }
+
     private void validateUser(Long userId) {
-        userServiceImpl.getAllUsers().stream()
-                .filter(user -> user.getId().equals(userId))
-                .findAny()
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+        userExistenceService.validateUserExists(userId);
     }
 
     private ItemDto validateForBookingCreation(Long userId, SimpleBookingDto simpleBookingDto) {
@@ -136,11 +316,34 @@ public class BookingServiceImpl implements BookingService {
                                            List<ItemWithBookingDto> itemWithBookingDtos,
                                            Integer from,
                                            Integer size) {
-        List<Booking> bookings;
         int page = from / size;
-        Pageable pageRequest = PageRequest.of(page, size, Sort.by("start").descending());
-        bookings = bookingRepository.findBookingsByBooker(userId, pageRequest);
-        pickTheStateCase(itemWithBookingDtos, state, bookings);
+        Pageable pageRequest = PageRequest.of(page, size, BOOKING_ORDER);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findBookingsByBooker(userId, pageRequest);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findBookingsByBookerAndEndIsBefore(userId, now, pageRequest);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findBookingsByBookerAndStartIsAfter(userId, now, pageRequest);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findBookingsByBookerAndStartIsBeforeAndEndIsAfter(userId,
+                        now, now, pageRequest);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findBookingsByBookerAndStatus(userId, BookingState.REJECTED, pageRequest);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findBookingsByBookerAndStatus(userId, BookingState.WAITING, pageRequest);
+                break;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+        addItemWithBookingDtos(itemWithBookingDtos, bookings);
     }
 
 
@@ -149,62 +352,144 @@ public class BookingServiceImpl implements BookingService {
                                           List<ItemWithBookingDto> itemWithBookingDtos,
                                           Integer from,
                                           Integer size) {
-        List<Booking> bookings;
         int page = from / size;
-        Pageable pageRequest = PageRequest.of(page, size, Sort.by("start").descending());
-        bookings = bookingRepository.findBookingsByOwnerId(userId, pageRequest);
-        pickTheStateCase(itemWithBookingDtos, state, bookings);
+        Pageable pageRequest = PageRequest.of(page, size, BOOKING_ORDER);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findBookingsByOwnerId(userId, pageRequest);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findPastBookingsByOwnerId(userId, now, pageRequest);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findFutureBookingsByOwnerId(userId, now, pageRequest);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findCurrentBookingsByOwnerId(userId, now, pageRequest);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findBookingsByOwnerIdAndStatus(userId, BookingState.REJECTED, pageRequest);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findBookingsByOwnerIdAndStatus(userId, BookingState.WAITING, pageRequest);
+                break;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+        addItemWithBookingDtos(itemWithBookingDtos, bookings);
     }
 
-    private void pickTheStateCase(List<ItemWithBookingDto> itemWithBookingDtos,
-                                  String state,
-                                  List<Booking> bookings) {
+    private void validateBookingsForBookerAfter(Long userId,
+                                                String state,
+                                                List<ItemWithBookingDto> itemWithBookingDtos,
+                                                PageCursor cursor,
+                                                Integer size) {
+        Pageable pageRequest = PageRequest.of(0, PageCursor.pageSize(size), BOOKING_ORDER);
+        LocalDateTime start = cursor.getTimestamp();
+        Long id = cursor.getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findBookerBookingsAfter(userId, start, id, pageRequest);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findPastBookerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findFutureBookerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findCurrentBookerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findBookerBookingsByStatusAfter(userId, BookingState.REJECTED,
+                        start, id, pageRequest);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findBookerBookingsByStatusAfter(userId, BookingState.WAITING,
+                        start, id, pageRequest);
+                break;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+        addItemWithBookingDtos(itemWithBookingDtos, bookings);
+    }
+
+    private void validateBookingsForOwnerAfter(Long userId,
+                                               String state,
+                                               List<ItemWithBookingDto> itemWithBookingDtos,
+                                               PageCursor cursor,
+                                               Integer size) {
+        Pageable pageRequest = PageRequest.of(0, PageCursor.pageSize(size), BOOKING_ORDER);
+        LocalDateTime start = cursor.getTimestamp();
+        Long id = cursor.getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findOwnerBookingsAfter(userId, start, id, pageRequest);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findPastOwnerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findFutureOwnerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findCurrentOwnerBookingsAfter(userId, now, start, id, pageRequest);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findOwnerBookingsByStatusAfter(userId, BookingState.REJECTED,
+                        start, id, pageRequest);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findOwnerBookingsByStatusAfter(userId, BookingState.WAITING,
+                        start, id, pageRequest);
+                break;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+        addItemWithBookingDtos(itemWithBookingDtos, bookings);
+    }
+
+    private void exportChunk(List<Booking> chunk, Consumer<List<ItemWithBookingDto>> chunkConsumer) {
+        List<ItemWithBookingDto> itemWithBookingDtos = new ArrayList<>(chunk.size());
+        List<Item> items = itemRepository.findAllById(itemIdsOf(chunk));
+        addItemWithBookingDtos(itemWithBookingDtos, chunk, items);
+        chunk.forEach(entityManager::detach);
+        items.forEach(entityManager::detach);
+        chunk.clear();
+        chunkConsumer.accept(itemWithBookingDtos);
+    }
+
+    private void addItemWithBookingDtos(List<ItemWithBookingDto> itemWithBookingDtos,
+                                        List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        addItemWithBookingDtos(itemWithBookingDtos, bookings, itemRepository.findAllById(itemIdsOf(bookings)));
+    }
+
+    private static Set<Long> itemIdsOf(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getItemId)
+                .collect(Collectors.toSet());
+    }
+
+    private static void addItemWithBookingDtos(List<ItemWithBookingDto> itemWithBookingDtos,
+                                               List<Booking> bookings,
+                                               List<Item> items) {
+        Map<Long, ItemDto> itemDtos = items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
         for (Booking booking : bookings) {
-            ItemDto itemDto = itemServiceImpl.getItemById(booking.getItemId());
-            switch (state) {
-                case "ALL":
-                    itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                            itemDto,
-                            toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    break;
-                case "PAST":
-                    if (booking.getEnd().isBefore(LocalDateTime.now())) {
-                        itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                                itemDto,
-                                toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    }
-                    break;
-                case "FUTURE":
-                    if (booking.getStart().isAfter(LocalDateTime.now())) {
-                        itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                                itemDto,
-                                toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    }
-                    break;
-                case "CURRENT":
-                    if (booking.getStart().isBefore(LocalDateTime.now())
-                            && booking.getEnd().isAfter(LocalDateTime.now())
-                            && booking.getStatus().equals(BookingState.APPROVED)) {
-                        itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                                itemDto,
-                                toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    }
-                case "REJECTED":
-                    if (booking.getStatus().equals(BookingState.REJECTED)) {
-                        itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                                itemDto,
-                                toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    }
-                    break;
-                case "WAITING":
-                    if (booking.getStatus().equals(BookingState.WAITING)) {
-                        itemWithBookingDtos.add(toItemWithBookingDto(booking,
-                                itemDto,
-                                toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
-                    }
-                    break;
-            }
+            ItemDto itemDto = itemDtos.get(booking.getItemId());
+            itemWithBookingDtos.add(toItemWithBookingDto(booking,
+                    itemDto,
+                    toBookingDtoFromBooker(toBookingDto(booking, itemDto))));
         }
     }
 }
-
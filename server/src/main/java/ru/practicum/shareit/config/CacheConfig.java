@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String ITEMS = "items";
+
+    public static final String USERS = "users";
+
+    public static final String REQUESTS = "requests";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : List.of(ITEMS, USERS, REQUESTS)) {
+            CacheProperties.CacheSpec cacheSpec = cacheProperties.getCache()
+                    .getOrDefault(name, new CacheProperties.CacheSpec());
+            if (cacheSpec.isEnabled()) {
+                caches.add(new CaffeineCache(name, Caffeine.from(cacheSpec.getSpec()).build(), false));
+            } else {
+                caches.add(new NoOpCache(name));
+            }
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+}
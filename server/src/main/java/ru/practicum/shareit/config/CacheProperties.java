@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit")
+public class CacheProperties {
+
+    private Map<String, CacheSpec> cache = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private boolean enabled = true;
+        private String spec = "maximumSize=10000,expireAfterWrite=10m,recordStats";
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.QueryBudgetInterceptor;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(MeterRegistry meterRegistry,
+                                                   QueryBudgetProperties queryBudgetProperties) {
+        return new SqlStatementCounter(meterRegistry, queryBudgetProperties.getMode());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public WebMvcConfigurer queryBudgetConfigurer(SqlStatementCounter sqlStatementCounter,
+                                                  QueryBudgetProperties queryBudgetProperties) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new QueryBudgetInterceptor(sqlStatementCounter,
+                        queryBudgetProperties.getEndpoints()));
+            }
+        };
+    }
+}
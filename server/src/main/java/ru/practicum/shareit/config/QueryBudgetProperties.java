@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql.budget")
+public class QueryBudgetProperties {
+
+    private Mode mode = Mode.METRIC;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public enum Mode {
+        METRIC,
+        LOG,
+        FAIL
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.etag;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class EntityTags {
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheControl cacheControl;
+
+    public EntityTags(ObjectMapper objectMapper,
+                      @Value("${shareit.etag.max-age:0s}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.cacheControl = maxAge.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge.toSeconds(), TimeUnit.SECONDS).mustRevalidate();
+    }
+
+    public ResponseEntity<byte[]> conditionalGet(String ifNoneMatch, Supplier<?> loader) {
+        byte[] body = serialize(loader.get());
+        String entityTag = "W/\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        if (matches(ifNoneMatch, entityTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entityTag)
+                    .cacheControl(cacheControl)
+                    .varyBy("X-Sharer-User-Id")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entityTag)
+                .cacheControl(cacheControl)
+                .varyBy("X-Sharer-User-Id")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось вычислить ETag ответа.", e);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaqueTag = opaque(entityTag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || opaque(candidate).equals(opaqueTag));
+    }
+
+    private static String opaque(String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+}
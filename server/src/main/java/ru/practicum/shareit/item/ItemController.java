@@ -1,11 +1,28 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
+import ru.practicum.shareit.item.importer.ItemImportService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.metrics.QueryBudget;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,19 +31,55 @@ public class ItemController {
 
     private final ItemServiceImpl itemServiceImpl;
 
+    private final EntityTags entityTags;
+
+    private final ItemImportService itemImportService;
+
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public ItemController(ItemServiceImpl itemServiceImpl) {
+    public ItemController(ItemServiceImpl itemServiceImpl,
+                          EntityTags entityTags,
+                          ItemImportService itemImportService,
+                          ObjectMapper objectMapper) {
         this.itemServiceImpl = itemServiceImpl;
+        this.entityTags = entityTags;
+        this.itemImportService = itemImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
+    @QueryBudget(3)
     @ResponseBody
     public ItemDto postItem(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                             @RequestBody ItemDto itemDto) {
         return itemServiceImpl.postItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    public void importItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(ItemImportService.NDJSON.toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        itemImportService.importItems(userId, contentType, request.getInputStream(), report -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(report));
+                out.write('\n');
+                if (!ItemImportReportDto.ERROR.equals(report.getType())) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @PostMapping("/{itemId}/comment")
+    @QueryBudget(5)
     @ResponseBody
     public ItemWithBookingHistory.CommentDto postComment(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                                          @PathVariable Long itemId,
@@ -35,6 +88,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
+    @QueryBudget(3)
     @ResponseBody
     public ItemDto updateItemInfo(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @PathVariable Long itemId,
@@ -43,19 +97,53 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingHistory getItemByIdWithBookingHistory(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                @PathVariable(required = false) Long itemId) {
-        return itemServiceImpl.getItemByIdWithBookingHistory(userId, itemId);
+    @QueryBudget(8)
+    public ResponseEntity<byte[]> getItemByIdWithBookingHistory(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PathVariable(required = false) Long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return entityTags.conditionalGet(ifNoneMatch,
+                () -> itemServiceImpl.getItemByIdWithBookingHistory(userId, itemId));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @QueryBudget(3)
+    public ItemAvailabilityDto getItemAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return itemServiceImpl.getItemAvailability(itemId, start, end);
     }
 
     @GetMapping
-    public List<ItemWithBookingHistory> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemServiceImpl.getAllItems(userId);
+    @QueryBudget(5)
+    public List<ItemWithBookingHistory> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(required = false) Integer from,
+                                                    @RequestParam(required = false) Integer size) {
+        return itemServiceImpl.getAllItems(userId, from, size);
     }
 
-    @GetMapping("/search")
+    @GetMapping(value = "/search", params = {"!freeFrom", "!freeTo"})
+    @QueryBudget(2)
     public List<ItemDto> searchItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam String text) {
-        return itemServiceImpl.searchForItemsResult(userId, text);
+                                             @RequestParam String text,
+                                             @RequestParam(required = false) Integer from,
+                                             @RequestParam(required = false) Integer size) {
+        return itemServiceImpl.searchForItemsResult(userId, text, from, size);
+    }
+
+    @GetMapping("/search")
+    @QueryBudget(2 * ItemServiceImpl.MAX_FREE_SEARCH_CHUNKS)
+    public List<ItemDto> searchFreeItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestParam String text,
+                                         @RequestParam(required = false) Integer from,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo) {
+        return itemServiceImpl.searchForItemsResult(userId, text, from, size, freeFrom, freeTo);
     }
 }
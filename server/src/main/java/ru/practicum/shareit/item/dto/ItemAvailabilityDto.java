@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Boolean free;
+    private List<BookedInterval> bookings;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Setter
+    @Getter
+    @EqualsAndHashCode(of = "id")
+    @Builder
+    public static class BookedInterval {
+        private Long id;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private BookingState status;
+    }
+}
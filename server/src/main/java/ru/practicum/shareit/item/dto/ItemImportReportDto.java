@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportReportDto {
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+    private Long line;
+    private String error;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+
+    public static ItemImportReportDto error(long line, String error) {
+        return ItemImportReportDto.builder()
+                .type(ERROR)
+                .line(line)
+                .error(error)
+                .build();
+    }
+
+    public static ItemImportReportDto progress(String type, long processed, long imported, long failed) {
+        return ItemImportReportDto.builder()
+                .type(type)
+                .processed(processed)
+                .imported(imported)
+                .failed(failed)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+class BoundedLineReader {
+
+    private final Reader reader;
+
+    private final int maxLineLength;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private long lineNumber;
+
+    private boolean tooLong;
+
+    BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    String readLine() throws IOException {
+        buffer.setLength(0);
+        tooLong = false;
+        int next = reader.read();
+        if (next == -1) {
+            return null;
+        }
+        lineNumber++;
+        while (next != -1 && next != '\n') {
+            if (buffer.length() < maxLineLength) {
+                buffer.append((char) next);
+            } else {
+                tooLong = true;
+            }
+            next = reader.read();
+        }
+        int last = buffer.length() - 1;
+        if (last >= 0 && buffer.charAt(last) == '\r') {
+            buffer.setLength(last);
+        }
+        return buffer.toString();
+    }
+
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    boolean isTooLong() {
+        return tooLong;
+    }
+}
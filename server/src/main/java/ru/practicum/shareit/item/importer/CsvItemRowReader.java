@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.importer;
+
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+class CsvItemRowReader implements ItemRowReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final BoundedLineReader lines;
+
+    private final int maxRecordLength;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    CsvItemRowReader(BoundedLineReader lines, int maxRecordLength) throws IOException {
+        this.lines = lines;
+        this.maxRecordLength = maxRecordLength;
+        String header = lines.readLine();
+        if (header == null) {
+            throw new ValidationException("Отсутствует заголовок CSV.");
+        }
+        List<String> names = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new ValidationException("Заголовок CSV должен содержать колонки " + REQUIRED_COLUMNS + ".");
+        }
+    }
+
+    @Override
+    public ItemImportRow next() throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank() && !lines.isTooLong());
+        long lineNumber = lines.getLineNumber();
+        StringBuilder record = new StringBuilder(line);
+        boolean tooLong = lines.isTooLong();
+        while (!tooLong && hasOpenQuote(record)) {
+            String continuation = lines.readLine();
+            if (continuation == null) {
+                return ItemImportRow.failed(lineNumber, "Незакрытые кавычки.");
+            }
+            record.append('\n').append(continuation);
+            tooLong = lines.isTooLong() || record.length() > maxRecordLength;
+        }
+        if (tooLong) {
+            return ItemImportRow.failed(lineNumber, "Строка слишком длинная.");
+        }
+        List<String> values = split(record.toString());
+        try {
+            return ItemImportRow.parsed(lineNumber, ItemDto.builder()
+                    .name(value(values, "name"))
+                    .description(value(values, "description"))
+                    .available(parseBoolean(value(values, "available")))
+                    .requestId(parseLong(value(values, "requestid")))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return ItemImportRow.failed(lineNumber, e.getMessage());
+        }
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("true") || normalized.equals("false")) {
+            return Boolean.valueOf(normalized);
+        }
+        throw new IllegalArgumentException("Некорректное значение available: " + value);
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение requestId: " + value);
+        }
+    }
+
+    private static boolean hasOpenQuote(CharSequence record) {
+        boolean open = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private static List<String> split(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
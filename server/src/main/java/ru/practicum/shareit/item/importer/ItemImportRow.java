@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.importer;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+class ItemImportRow {
+
+    private final long line;
+
+    private final ItemDto item;
+
+    private final String error;
+
+    private ItemImportRow(long line, ItemDto item, String error) {
+        this.line = line;
+        this.item = item;
+        this.error = error;
+    }
+
+    static ItemImportRow parsed(long line, ItemDto item) {
+        return new ItemImportRow(line, item, null);
+    }
+
+    static ItemImportRow failed(long line, String error) {
+        return new ItemImportRow(line, null, error);
+    }
+
+    long getLine() {
+        return line;
+    }
+
+    ItemDto getItem() {
+        return item;
+    }
+
+    String getError() {
+        return error;
+    }
+}
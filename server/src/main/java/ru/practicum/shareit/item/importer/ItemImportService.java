@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.mapper.ItemMapper.toItem;
+
+@Service
+public class ItemImportService {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final UserExistenceService userExistenceService;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxLineLength;
+
+    public ItemImportService(ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             UserExistenceService userExistenceService,
+                             ItemSearchEngine itemSearchEngine,
+                             ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.items.import.batch-size:500}") int batchSize,
+                             @Value("${shareit.items.import.max-line-length:65536}") int maxLineLength) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userExistenceService = userExistenceService;
+        this.itemSearchEngine = itemSearchEngine;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public void importItems(Long userId,
+                            MediaType contentType,
+                            InputStream body,
+                            Consumer<ItemImportReportDto> reporter) throws IOException {
+        userExistenceService.validateUserExists(userId);
+        BoundedLineReader lines = new BoundedLineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), maxLineLength);
+        ItemRowReader rows = CSV.isCompatibleWith(contentType)
+                ? new CsvItemRowReader(lines, maxLineLength)
+                : new NdjsonItemRowReader(lines, objectMapper);
+        Progress progress = new Progress();
+        List<ItemImportRow> batch = new ArrayList<>(batchSize);
+        ItemImportRow row;
+        while ((row = rows.next()) != null) {
+            progress.processed++;
+            String error = row.getError() != null ? row.getError() : validateItem(row.getItem());
+            if (error != null) {
+                progress.failed++;
+                reporter.accept(ItemImportReportDto.error(row.getLine(), error));
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                writeBatch(userId, batch, progress, reporter);
+                reporter.accept(progress.report(ItemImportReportDto.PROGRESS));
+            }
+        }
+        writeBatch(userId, batch, progress, reporter);
+        reporter.accept(progress.report(ItemImportReportDto.SUMMARY));
+    }
+
+    private void writeBatch(Long userId,
+                            List<ItemImportRow> batch,
+                            Progress progress,
+                            Consumer<ItemImportReportDto> reporter) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> requestIds = batch.stream()
+                .map(row -> row.getItem().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequests = requestIds.isEmpty() ? Set.of() : itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        List<ItemImportRow> accepted = new ArrayList<>(batch.size());
+        for (ItemImportRow row : batch) {
+            ItemDto itemDto = row.getItem();
+            if (itemDto.getRequestId() != null && !existingRequests.contains(itemDto.getRequestId())) {
+                progress.failed++;
+                reporter.accept(ItemImportReportDto.error(row.getLine(), "Запрос не найден."));
+                continue;
+            }
+            itemDto.setId(null);
+            itemDto.setOwner(userId);
+            accepted.add(row);
+        }
+        batch.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            saveItems(accepted);
+            progress.imported += accepted.size();
+        } catch (DataAccessException e) {
+            entityManager.clear();
+            for (ItemImportRow row : accepted) {
+                try {
+                    saveItems(List.of(row));
+                    progress.imported++;
+                } catch (DataAccessException rowException) {
+                    entityManager.clear();
+                    progress.failed++;
+                    reporter.accept(ItemImportReportDto.error(row.getLine(), "Не удалось сохранить предмет."));
+                }
+            }
+        }
+    }
+
+    private void saveItems(List<ItemImportRow> rows) {
+        List<Item> items = rows.stream()
+                .map(row -> toItem(row.getItem()))
+                .collect(Collectors.toList());
+        List<Item> saved = transactionTemplate.execute(status -> {
+            List<Item> result = itemRepository.saveAll(items);
+            itemRepository.flush();
+            return result;
+        });
+        entityManager.clear();
+        if (saved != null) {
+            saved.forEach(itemSearchEngine::onItemSaved);
+        }
+    }
+
+    private static String validateItem(ItemDto itemDto) {
+        if (itemDto.getAvailable() == null) {
+            return "Статус состояния отсутствует.";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Отсутствует название предмета.";
+        }
+        if (itemDto.getName().length() > MAX_NAME_LENGTH) {
+            return String.format("Название предмета длиннее %s символов.", MAX_NAME_LENGTH);
+        }
+        if (itemDto.getDescription() == null) {
+            return "Отсутствует описание предмета";
+        }
+        if (!itemDto.getAvailable()) {
+            return "Предмет занят.";
+        }
+        return null;
+    }
+
+    private static class Progress {
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ItemImportReportDto report(String type) {
+            return ItemImportReportDto.progress(type, processed, imported, failed);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.importer;
+
+import java.io.IOException;
+
+interface ItemRowReader {
+    ItemImportRow next() throws IOException;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+
+class NdjsonItemRowReader implements ItemRowReader {
+
+    private final BoundedLineReader lines;
+
+    private final ObjectMapper objectMapper;
+
+    NdjsonItemRowReader(BoundedLineReader lines, ObjectMapper objectMapper) {
+        this.lines = lines;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ItemImportRow next() throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank() && !lines.isTooLong());
+        if (lines.isTooLong()) {
+            return ItemImportRow.failed(lines.getLineNumber(), "Строка слишком длинная.");
+        }
+        try {
+            return ItemImportRow.parsed(lines.getLineNumber(), objectMapper.readValue(line, ItemDto.class));
+        } catch (JsonProcessingException e) {
+            return ItemImportRow.failed(lines.getLineNumber(), "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -18,7 +18,8 @@ import java.util.Objects;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -39,6 +40,10 @@ public class Item {
     @Column(name = "item_request_id")
     private Long request;
 
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,6 +4,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Comment findCommentByItemId(@Param("item_id") Long itemId);
+
+    List<Comment> findAllByItemIdInOrderById(Collection<Long> itemIds);
 }
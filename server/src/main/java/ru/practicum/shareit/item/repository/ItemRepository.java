@@ -1,15 +1,38 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwner(@Param("owner_id") Long userId);
 
+    List<Item> findAllByOwner(Long userId, Sort sort);
+
+    List<Item> findAllByOwner(Long userId, Pageable pageable);
+
     List<Item> findAllByRequest(@Param("item_request_id") Long requestId);
+
+    List<Item> findAllByRequestIn(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findLockedById(@Param("id") Long itemId);
+
+    @Query(value = "SELECT * FROM items i " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.item_name) LIKE :pattern OR LOWER(i.description) LIKE :pattern) " +
+            "ORDER BY CASE WHEN LOWER(i.item_name) LIKE :pattern THEN 0 ELSE 1 END, i.id", nativeQuery = true)
+    List<Item> searchAvailable(@Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "inverted-index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            Pageable pageable = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+            Page<Item> page;
+            do {
+                page = itemRepository.findAll(pageable);
+                page.forEach(this::addToIndex);
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+            log.info("Item search index built: {} items, {} grams", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(item.getId());
+            addToIndex(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase();
+        List<Long> nameMatches = new ArrayList<>();
+        List<Long> descriptionMatches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long id : findCandidates(query)) {
+                IndexedItem indexedItem = documents.get(id);
+                if (indexedItem.name.contains(query)) {
+                    nameMatches.add(id);
+                } else if (indexedItem.description.contains(query)) {
+                    descriptionMatches.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> ranked = new ArrayList<>(nameMatches);
+        ranked.addAll(descriptionMatches);
+        if (pageable.isPaged()) {
+            int fromIndex = (int) Math.min(pageable.getOffset(), ranked.size());
+            int toIndex = Math.min(fromIndex + pageable.getPageSize(), ranked.size());
+            ranked = ranked.subList(fromIndex, toIndex);
+        }
+        return hydrate(ranked);
+    }
+
+    private long[] findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet().stream()
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList postingList = postings.get(gram);
+            if (postingList == null) {
+                return new long[0];
+            }
+            lists.add(postingList);
+        }
+        lists.sort(Comparator.comparingInt(postingList -> postingList.size));
+        return lists.get(0).intersect(lists.subList(1, lists.size()));
+    }
+
+    private List<Item> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void addToIndex(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedItem indexedItem = new IndexedItem(lowerCase(item.getName()), lowerCase(item.getDescription()));
+        documents.put(item.getId(), indexedItem);
+        for (String gram : indexedItem.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(item.getId());
+        }
+    }
+
+    private void removeFromIndex(Long itemId) {
+        IndexedItem indexedItem = documents.remove(itemId);
+        if (indexedItem == null) {
+            return;
+        }
+        for (String gram : indexedItem.grams()) {
+            PostingList postingList = postings.get(gram);
+            if (postingList != null && postingList.remove(itemId) && postingList.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class IndexedItem {
+        private final String name;
+        private final String description;
+
+        IndexedItem(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InvertedIndexItemSearchEngine.grams(name);
+            grams.addAll(InvertedIndexItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+
+    private static class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        long[] intersect(List<PostingList> others) {
+            long[] result = new long[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                long id = ids[i];
+                boolean inAll = true;
+                for (PostingList other : others) {
+                    if (Arrays.binarySearch(other.ids, 0, other.size, id) < 0) {
+                        inAll = false;
+                        break;
+                    }
+                }
+                if (inAll) {
+                    result[count++] = id;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,7 +18,16 @@ public interface ItemService {
 
     ItemWithBookingHistory getItemByIdWithBookingHistory(Long userId, Long itemId);
 
-    List<ItemWithBookingHistory> getAllItems(Long userId);
+    List<ItemWithBookingHistory> getAllItems(Long userId, Integer from, Integer size);
 
-    List<ItemDto> searchForItemsResult(Long userId, String text);
+    List<ItemDto> searchForItemsResult(Long userId, String text, Integer from, Integer size);
+
+    List<ItemDto> searchForItemsResult(Long userId,
+                                       String text,
+                                       Integer from,
+                                       Integer size,
+                                       LocalDateTime freeFrom,
+                                       LocalDateTime freeTo);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -1,19 +1,32 @@
 package ru.practicum.shareit.item.service;
 
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityEngine;
 import ru.practicum.shareit.booking.dto.SimpleBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.time.LocalDate;
@@ -21,32 +34,49 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toSimpleBookingDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 
 @Service
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
+    public static final int MAX_FREE_SEARCH_CHUNKS = 5;
+
+    private static final int FREE_SEARCH_CHUNK_SIZE = 100;
+
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final UserServiceImpl userServiceImpl;
+    private final UserExistenceService userExistenceService;
     private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityEngine itemAvailabilityEngine;
 
     public ItemServiceImpl(CommentRepository commentRepository, BookingRepository bookingRepository,
-                           UserServiceImpl userServiceImpl, ItemRepository itemRepository) {
+                           UserServiceImpl userServiceImpl, UserExistenceService userExistenceService,
+                           ItemRepository itemRepository, ItemSearchEngine itemSearchEngine,
+                           ItemAvailabilityEngine itemAvailabilityEngine) {
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
         this.userServiceImpl = userServiceImpl;
+        this.userExistenceService = userExistenceService;
         this.itemRepository = itemRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemAvailabilityEngine = itemAvailabilityEngine;
     }
 
     @Override
     public ItemDto postItem(Long userId, ItemDto itemDto) {
         validateItemOwner(userId);
         itemDto.setOwner(userId);
-        return toItemDto(itemRepository.save(toItem(itemDto)));
+        Item item = itemRepository.save(toItem(itemDto));
+        itemSearchEngine.onItemSaved(item);
+        return toItemDto(item);
     }
 
     @Override
@@ -67,13 +97,17 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto updateItemInfo(Long userId, Long itemId, ItemDto itemDto) {
         validateItemOwner(userId);
-        return toItemDto(itemRepository.save(validateItemForUpdate(itemDto, itemId, userId)));
+        Item item = itemRepository.save(validateItemForUpdate(itemDto, itemId, userId));
+        itemSearchEngine.onItemSaved(item);
+        return toItemDto(item);
     }
 
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto getItemById(Long itemId) {
         validateItemExists(itemId);
         return toItemDto(itemRepository.findById(itemId).orElseThrow());
@@ -107,66 +141,124 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemWithBookingHistory> getAllItems(Long userId) {
-        ItemWithBookingHistory itemWithBookingHistory = new ItemWithBookingHistory();
-        List<ItemWithBookingHistory.CommentDto> commentDtos = new ArrayList<>();
+    public List<ItemWithBookingHistory> getAllItems(Long userId, Integer from, Integer size) {
+        List<Item> items;
+        if (from != null && size != null) {
+            items = itemRepository.findAllByOwner(userId, PageRequest.of(from / size, size, Sort.by("id")));
+        } else {
+            items = itemRepository.findAllByOwner(userId, Sort.by("id"));
+        }
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findFirstAndLastBookingsByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(Booking::getItemId));
+        List<Comment> comments = commentRepository.findAllByItemIdInOrderById(itemIds);
+        Map<Long, UserDto> authors = userServiceImpl.getUsersByIds(comments.stream()
+                        .map(Comment::getAuthorId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        Map<Long, List<Comment>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(Comment::getItemId));
+
         List<ItemWithBookingHistory> itemDtos = new ArrayList<>();
-        SimpleBookingDto lastBooking = new SimpleBookingDto();
-        SimpleBookingDto nextBooking = new SimpleBookingDto();
-        ItemDto itemDto;
-        for (Item item : itemRepository.findAll()) {
-            if (Objects.equals(item.getOwner(), userId)) {
-                itemDto = toItemDto(itemRepository.findById(item.getId()).orElseThrow());
-                if (bookingRepository.findNextBooking(item.getId(), userId) != null
-                        && bookingRepository.findLastBooking(item.getId(), userId) != null) {
-                    lastBooking = toSimpleBookingDto(bookingRepository.findLastBooking(item.getId(), userId));
-                    nextBooking = toSimpleBookingDto(bookingRepository.findNextBooking(item.getId(), userId));
-                }
-                if (commentRepository.findCommentByItemId(item.getId()) != null) {
-                    Comment comment = commentRepository.findCommentByItemId(item.getId());
-                    ItemWithBookingHistory.CommentDto commentDto = toCommentDto(comment, itemDto,
-                            userServiceImpl.getUserById(comment.getAuthorId()));
-                    commentDtos.add(commentDto);
-                } else {
-                    itemWithBookingHistory.setComments(new ArrayList<>());
-                }
-                if (bookingRepository.findNextBooking(item.getId(), userId) != null
-                        && bookingRepository.findLastBooking(item.getId(), userId) != null
-                        && Objects.requireNonNull(bookingRepository.findBookingById(lastBooking.getId()))
-                        .getStatus().equals(BookingState.APPROVED)) {
-                    itemDtos.add(toItemWithBookingHistory(itemDto, lastBooking, nextBooking, commentDtos));
-                } else {
-                    itemDtos.add(toItemWithBookingHistory(itemDto, null, null, commentDtos));
-                }
+        for (Item item : items) {
+            ItemDto itemDto = toItemDto(item);
+            List<ItemWithBookingHistory.CommentDto> commentDtos = commentsByItem
+                    .getOrDefault(item.getId(), List.of()).stream()
+                    .map(comment -> toCommentDto(comment, itemDto, authors.get(comment.getAuthorId())))
+                    .collect(Collectors.toList());
+            List<Booking> bookings = bookingsByItem.getOrDefault(item.getId(), List.of());
+            Booking lastBooking = bookings.stream()
+                    .min(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                    .orElse(null);
+            Booking nextBooking = bookings.stream()
+                    .max(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                    .orElse(null);
+            if (lastBooking != null && lastBooking.getStatus().equals(BookingState.APPROVED)) {
+                itemDtos.add(toItemWithBookingHistory(itemDto, toSimpleBookingDto(lastBooking),
+                        toSimpleBookingDto(nextBooking), commentDtos));
+            } else {
+                itemDtos.add(toItemWithBookingHistory(itemDto, null, null, commentDtos));
             }
         }
-        return itemDtos.stream()
-                .sorted(Comparator.comparing(ItemWithBookingHistory::getId))
-                .collect(Collectors.toList());
+        return itemDtos;
     }
 
     @Override
-    public List<ItemDto> searchForItemsResult(Long userId, String text) {
-        List<ItemDto> itemDtos = new ArrayList<>();
-        if (text == null || text.isEmpty()) {
+    public List<ItemDto> searchForItemsResult(Long userId, String text, Integer from, Integer size) {
+        return searchForItemsResult(userId, text, from, size, null, null);
+    }
+
+    @Override
+    public List<ItemDto> searchForItemsResult(Long userId,
+                                              String text,
+                                              Integer from,
+                                              Integer size,
+                                              LocalDateTime freeFrom,
+                                              LocalDateTime freeTo) {
+        if (text == null || text.isBlank()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.findAll().stream()
-                .filter(item -> ((item.getName().toLowerCase().contains(text.toLowerCase())
-                        || item.getDescription().toLowerCase().contains(text.toLowerCase())))
-                        && item.getAvailable().equals(true))
+        Pageable pageable = Pageable.unpaged();
+        if (from != null && size != null) {
+            pageable = PageRequest.of(from / size, size);
+        }
+        if (freeFrom == null && freeTo == null) {
+            return itemSearchEngine.search(text, pageable).stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
+        validateWindow(freeFrom, freeTo);
+        long wanted = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+        int chunkSize = pageable.isPaged()
+                ? Math.max(pageable.getPageSize(), FREE_SEARCH_CHUNK_SIZE)
+                : FREE_SEARCH_CHUNK_SIZE;
+        List<Item> freeItems = new ArrayList<>();
+        for (int page = 0; page < MAX_FREE_SEARCH_CHUNKS && freeItems.size() < wanted; page++) {
+            List<Item> matches = itemSearchEngine.search(text, PageRequest.of(page, chunkSize));
+            Set<Long> free = itemAvailabilityEngine.findFree(matches.stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList()), freeFrom, freeTo);
+            matches.stream()
+                    .filter(item -> free.contains(item.getId()))
+                    .forEach(freeItems::add);
+            if (matches.size() < chunkSize) {
+                break;
+            }
+        }
+        return freeItems.stream()
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
-        for (Item item : items) {
-            itemDtos.add(toItemDto(item));
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        ItemDto itemDto = getItemById(itemId);
+        List<ItemAvailabilityDto.BookedInterval> bookings = itemAvailabilityEngine.bookedBetween(itemId, start, end)
+                .stream()
+                .map(booking -> new ItemAvailabilityDto.BookedInterval(booking.getId(),
+                        booking.getStart(), booking.getEnd(), booking.getStatus()))
+                .collect(Collectors.toList());
+        boolean free = Boolean.TRUE.equals(itemDto.getAvailable())
+                && bookings.stream().noneMatch(booking -> booking.getStatus() == BookingState.APPROVED);
+        return new ItemAvailabilityDto(itemId, start, end, free, bookings);
+    }
+
+    private void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Некорректный интервал времени.");
         }
-        return itemDtos;
     }
 
     private void validateItemOwner(Long userId) {
-        userServiceImpl.getAllUsers().stream()
-                .filter(user -> user.getId().equals(userId))
-                .findAny()
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+        userExistenceService.validateUserExists(userId);
     }
 
     private void validateItemExists(Long itemId) {
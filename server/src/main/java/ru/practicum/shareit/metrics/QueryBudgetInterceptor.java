@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final Map<String, Integer> overrides;
+
+    public QueryBudgetInterceptor(SqlStatementCounter sqlStatementCounter, Map<String, Integer> overrides) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.overrides = Map.copyOf(overrides);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            QueryBudget queryBudget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            String endpoint = endpoint(handlerMethod);
+            Integer budget = overrides.get(endpoint);
+            if (budget == null && queryBudget != null) {
+                budget = queryBudget.value();
+            }
+            if (budget != null) {
+                sqlStatementCounter.applyBudget(endpoint, budget);
+            }
+        }
+        return true;
+    }
+
+    public static String endpoint(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.config.QueryBudgetProperties;
+import ru.practicum.shareit.exception.QueryBudgetExceededException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Slf4j
+public class SqlStatementCounter extends OncePerRequestFilter implements StatementInspector {
+
+    public static final String METRIC_NAME = "shareit.sql.statements";
+
+    public static final String BUDGET_EXCEEDED_METRIC_NAME = "shareit.sql.budget.exceeded";
+
+    private final ThreadLocal<RequestStatements> statements = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final QueryBudgetProperties.Mode mode;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry, QueryBudgetProperties.Mode mode) {
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements current = statements.get();
+        if (current != null && ++current.count > current.budget) {
+            if (!current.exceeded) {
+                current.exceeded = true;
+                Counter.builder(BUDGET_EXCEEDED_METRIC_NAME)
+                        .description("Requests that ran more SQL statements than their endpoint budget")
+                        .tag("endpoint", current.endpoint)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            if (mode == QueryBudgetProperties.Mode.FAIL) {
+                throw new QueryBudgetExceededException("Запрос " + current.endpoint + " превысил бюджет в "
+                        + current.budget + " SQL-выражений: " + sql);
+            }
+        }
+        return sql;
+    }
+
+    public void applyBudget(String endpoint, int budget) {
+        RequestStatements current = statements.get();
+        if (current != null) {
+            current.endpoint = endpoint;
+            current.budget = budget;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements current = new RequestStatements();
+        statements.set(current);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements.remove();
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements prepared while handling a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route(request))
+                    .register(meterRegistry)
+                    .record(current.count);
+            if (current.exceeded && mode == QueryBudgetProperties.Mode.LOG) {
+                log.warn("{} ran {} SQL statements, budget is {}", current.endpoint, current.count, current.budget);
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static class RequestStatements {
+        private int count;
+        private int budget = QueryBudget.UNBOUNDED;
+        private String endpoint = "UNKNOWN";
+        private boolean exceeded;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+
+    private final Long id;
+
+    private PageCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime timestamp, Long id) {
+        return new PageCursor(roundToMicros(timestamp), id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Некорректный курсор.");
+            }
+            String timestamp = value.substring(0, separator);
+            return new PageCursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор.");
+        }
+    }
+
+    public static int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            throw new ValidationException("Для курсора нужен положительный параметр size.");
+        }
+        return size;
+    }
+
+    public String encode() {
+        String value = (timestamp != null ? timestamp.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime roundToMicros(LocalDateTime timestamp) {
+        LocalDateTime micros = timestamp.truncatedTo(ChronoUnit.MICROS);
+        return timestamp.getNano() % 1_000 >= 500 ? micros.plusNanos(1_000) : micros;
+    }
+
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page,
+                                                             Integer size,
+                                                             Function<T, PageCursor> cursorOf) {
+        if (size == null || page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.PageCursor.withNextCursor;
+
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -14,11 +21,15 @@ public class ItemRequestController {
 
     private final ItemRequestServiceImpl itemRequestServiceImpl;
 
-    public ItemRequestController(ItemRequestServiceImpl itemRequestServiceImpl) {
+    private final EntityTags entityTags;
+
+    public ItemRequestController(ItemRequestServiceImpl itemRequestServiceImpl, EntityTags entityTags) {
         this.itemRequestServiceImpl = itemRequestServiceImpl;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
+    @QueryBudget(2)
     @ResponseBody
     public ItemRequestDto postItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestBody ItemRequestDto itemRequestDto) {
@@ -26,20 +37,30 @@ public class ItemRequestController {
     }
 
     @GetMapping
+    @QueryBudget(3)
     public List<RequestWithItemsDto> getSelfRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemRequestServiceImpl.getSelfRequests(userId);
     }
 
     @GetMapping("/all")
-    public List<RequestWithItemsDto> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
-        return itemRequestServiceImpl.getRequests(userId, from, size);
+    @QueryBudget(3)
+    public ResponseEntity<List<RequestWithItemsDto>> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(required = false) Integer from,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String cursor) {
+        List<RequestWithItemsDto> requests = cursor == null
+                ? itemRequestServiceImpl.getRequests(userId, from, size)
+                : itemRequestServiceImpl.getRequestsAfter(userId, PageCursor.decode(cursor), size);
+        return withNextCursor(requests, size, request -> PageCursor.of(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
-    public RequestWithItemsDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @PathVariable Long requestId) {
-        return itemRequestServiceImpl.getRequestById(userId, requestId);
+    @QueryBudget(3)
+    public ResponseEntity<byte[]> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long requestId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                         required = false) String ifNoneMatch) {
+        return entityTags.conditionalGet(ifNoneMatch,
+                () -> itemRequestServiceImpl.getRequestById(userId, requestId));
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.data.web.PageableDefault;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -15,4 +16,11 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     @Query("SELECT i FROM ItemRequest i WHERE i.requestor NOT IN (:requestor_id)")
     List<ItemRequest> findAllByRequestorWithoutSelfRequest(@Param("requestor_id") Long userId,
                                                            @PageableDefault(size = 0) Pageable pageable);
+
+    @Query("SELECT i FROM ItemRequest i WHERE i.requestor NOT IN (:requestor_id) " +
+            "AND (i.created > :cursor_created OR (i.created = :cursor_created AND i.id > :cursor_id))")
+    List<ItemRequest> findAllByRequestorWithoutSelfRequestAfter(@Param("requestor_id") Long userId,
+                                                                @Param("cursor_created") LocalDateTime cursorCreated,
+                                                                @Param("cursor_id") Long cursorId,
+                                                                Pageable pageable);
 }
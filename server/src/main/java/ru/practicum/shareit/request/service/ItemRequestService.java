@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
 
@@ -12,5 +13,7 @@ public interface ItemRequestService {
 
     List<RequestWithItemsDto> getRequests(Long userId, Integer from, Integer size);
 
+    List<RequestWithItemsDto> getRequestsAfter(Long userId, PageCursor cursor, Integer size);
+
     RequestWithItemsDto getRequestById(Long userId, Long requestId);
 }
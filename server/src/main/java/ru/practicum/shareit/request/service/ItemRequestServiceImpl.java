@@ -1,40 +1,55 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.*;
 
 @Service
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final Sort REQUEST_ORDER = Sort.by("created", "id");
+
     private final ItemRequestRepository itemRequestRepository;
 
-    private final UserServiceImpl userServiceImpl;
+    private final UserExistenceService userExistenceService;
 
     private final ItemRepository itemRepository;
 
+    private final Cache requestCache;
+
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
-                                  UserServiceImpl userServiceImpl,
-                                  ItemRepository itemRepository) {
+                                  UserExistenceService userExistenceService,
+                                  ItemRepository itemRepository,
+                                  CacheManager cacheManager) {
         this.itemRequestRepository = itemRequestRepository;
-        this.userServiceImpl = userServiceImpl;
+        this.userExistenceService = userExistenceService;
         this.itemRepository = itemRepository;
+        this.requestCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.REQUESTS));
     }
 
     @Override
@@ -60,7 +75,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         validateItemOwner(userId);
         List<RequestWithItemsDto> requestWithItems = new ArrayList<>();
         int page = from / size;
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("created"));
+        PageRequest pageRequest = PageRequest.of(page, size, REQUEST_ORDER);
         List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorWithoutSelfRequest(userId, pageRequest)
                 .stream()
                 .map(ItemRequestMapper::toItemRequestDto)
@@ -68,30 +83,57 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return getItemDtosForRequestor(requests, requestWithItems);
     }
 
+    @Override
+    public List<RequestWithItemsDto> getRequestsAfter(Long userId, PageCursor cursor, Integer size) {
+        validateItemOwner(userId);
+        List<RequestWithItemsDto> requestWithItems = new ArrayList<>();
+        PageRequest pageRequest = PageRequest.of(0, PageCursor.pageSize(size), REQUEST_ORDER);
+        List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorWithoutSelfRequestAfter(userId,
+                        cursor.getTimestamp(), cursor.getId(), pageRequest)
+                .stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+        return getItemDtosForRequestor(requests, requestWithItems);
+    }
+
     @Override
     public RequestWithItemsDto getRequestById(Long userId, Long requestId) {
         validateItemOwner(userId);
-        ItemRequestDto itemRequestDto = toItemRequestDto(itemRequestRepository.findById(requestId)
-                .orElseThrow(() -> new EntityNotFoundException("Запрос не найден.")));
+        ItemRequestDto itemRequestDto = getItemRequest(requestId);
         List<ItemDto> itemDtos = itemRepository.findAllByRequest(itemRequestDto.getId()).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
         return toRequestWithItemsDto(toItemRequest(itemRequestDto), itemDtos);
     }
 
+    private ItemRequestDto getItemRequest(Long requestId) {
+        ItemRequestDto cached = requestCache.get(requestId, ItemRequestDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        ItemRequestDto itemRequestDto = toItemRequestDto(itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Запрос не найден.")));
+        requestCache.put(requestId, itemRequestDto);
+        return itemRequestDto;
+    }
+
     private void validateItemOwner(Long userId) {
-        userServiceImpl.getAllUsers().stream()
-                .filter(user -> user.getId().equals(userId))
-                .findAny()
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+        userExistenceService.validateUserExists(userId);
     }
 
     private List<RequestWithItemsDto> getItemDtosForRequestor(List<ItemRequestDto> requests,
                                                               List<RequestWithItemsDto> requestWithItems) {
+        if (requests.isEmpty()) {
+            return requestWithItems;
+        }
+        Set<Long> requestIds = requests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIn(requestIds).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
         for (ItemRequestDto itemRequestDto : requests) {
-            List<ItemDto> itemDtos = itemRepository.findAllByRequest(itemRequestDto.getId()).stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+            List<ItemDto> itemDtos = itemsByRequest.getOrDefault(itemRequestDto.getId(), new ArrayList<>());
             RequestWithItemsDto requestWithItemsDto = toRequestWithItemsDto(toItemRequest(itemRequestDto), itemDtos);
             requestWithItems.add(requestWithItemsDto);
         }
@@ -1,12 +1,25 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.PageCursor.withNextCursor;
+
 
 @RestController
 @RequestMapping(path = "/users")
@@ -14,18 +27,28 @@ public class UserController {
 
     private final UserServiceImpl userServiceImpl;
 
+    private final EntityTags entityTags;
+
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public UserController(UserServiceImpl userServiceImpl) {
+    public UserController(UserServiceImpl userServiceImpl,
+                          EntityTags entityTags,
+                          ObjectMapper objectMapper) {
         this.userServiceImpl = userServiceImpl;
+        this.entityTags = entityTags;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
+    @QueryBudget(2)
     @ResponseBody
     public UserDto saveUser(@RequestBody UserDto userDto) {
         return userServiceImpl.saveUser(userDto);
     }
 
     @PatchMapping("/{userId}")
+    @QueryBudget(3)
     @ResponseBody
     public UserDto updateUserById(@PathVariable Long userId,
                                   @RequestBody UserDto userDto) {
@@ -34,16 +57,44 @@ public class UserController {
 
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
-        return userServiceImpl.getUserById(userId);
+    @QueryBudget(2)
+    public ResponseEntity<byte[]> getUserById(@PathVariable Long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                      required = false) String ifNoneMatch) {
+        return entityTags.conditionalGet(ifNoneMatch, () -> userServiceImpl.getUserById(userId));
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userServiceImpl.getAllUsers();
+    @QueryBudget(2)
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(defaultValue = "100") Integer size,
+                                                  @RequestParam(required = false) String cursor) {
+        List<UserDto> users = cursor == null
+                ? userServiceImpl.getUsers(size)
+                : userServiceImpl.getUsersAfter(PageCursor.decode(cursor), size);
+        return withNextCursor(users, size, user -> PageCursor.of(user.getId()));
+    }
+
+    @GetMapping("/export")
+    @QueryBudget(QueryBudget.UNBOUNDED)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        userServiceImpl.exportUsers(chunk -> {
+            try {
+                for (UserDto user : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(user));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @DeleteMapping("/{userId}")
+    @QueryBudget(3)
     public void deleteUserById(@PathVariable Long userId) {
         userServiceImpl.deleteUserById(userId);
     }
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+@Service
+public class UserExistenceService {
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, Boolean> existingUsers;
+
+    private final Cache<Long, Boolean> missingUsers;
+
+    public UserExistenceService(UserRepository userRepository,
+                                @Value("${shareit.user-existence.max-cached-users:100000}") long maxCachedUsers,
+                                @Value("${shareit.user-existence.existing-user-ttl:30s}") Duration existingUserTtl,
+                                @Value("${shareit.user-existence.missing-user-ttl:5s}") Duration missingUserTtl) {
+        this.userRepository = userRepository;
+        this.existingUsers = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(existingUserTtl)
+                .build();
+        this.missingUsers = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(missingUserTtl)
+                .build();
+    }
+
+    public void validateUserExists(Long userId) {
+        if (!userExists(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+    }
+
+    public boolean userExists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (existingUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+        if (missingUsers.getIfPresent(userId) != null) {
+            return false;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            markExisting(userId);
+        } else {
+            missingUsers.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void markExisting(Long userId) {
+        missingUsers.invalidate(userId);
+        existingUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void evict(Long userId) {
+        existingUsers.invalidate(userId);
+        missingUsers.invalidate(userId);
+    }
+}
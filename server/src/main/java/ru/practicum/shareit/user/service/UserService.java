@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -12,7 +15,13 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getUsers(Integer size);
+
+    List<UserDto> getUsersAfter(PageCursor cursor, Integer size);
+
+    void exportUsers(Consumer<List<UserDto>> chunkConsumer);
+
+    List<UserDto> getUsersByIds(Collection<Long> userIds);
 
     void deleteUserById(Long userId);
 }
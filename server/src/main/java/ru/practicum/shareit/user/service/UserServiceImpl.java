@@ -1,39 +1,73 @@
 package ru.practicum.shareit.user.service;
 
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.user.mapper.UserMapper.toUser;
 import static ru.practicum.shareit.user.mapper.UserMapper.toUserDto;
 
 @Service
+@Timed("shareit.service")
 public class UserServiceImpl implements UserService {
 
+    private static final Sort USER_ORDER = Sort.by("id");
+
     private final UserRepository userRepository;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    private final UserExistenceService userExistenceService;
+
+    private final EntityManager entityManager;
+
+    private final int exportChunkSize;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           UserExistenceService userExistenceService,
+                           EntityManager entityManager,
+                           @Value("${shareit.users.export.chunk-size:500}") int exportChunkSize) {
         this.userRepository = userRepository;
+        this.userExistenceService = userExistenceService;
+        this.entityManager = entityManager;
+        this.exportChunkSize = exportChunkSize;
     }
 
     @Override
     public UserDto saveUser(UserDto userDto) {
-        return toUserDto(userRepository.save(toUser(userDto)));
+        UserDto savedUser = toUserDto(userRepository.save(toUser(userDto)));
+        userExistenceService.markExisting(savedUser.getId());
+        return savedUser;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public UserDto updateUserById(Long userId, UserDto userDto) {
         validateForUserUpdate(userId, userDto);
         return toUserDto(userRepository.save(toUser(userDto)));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
     public UserDto getUserById(Long userId) {
         try {
             return toUserDto(userRepository.findById(userId).orElseThrow());
@@ -44,17 +78,46 @@ public class UserServiceImpl implements UserService {
 
 
     @Override
-    public List<UserDto> getAllUsers() {
+    public List<UserDto> getUsers(Integer size) {
+        return toUserDtos(userRepository.findAllBy(PageRequest.of(0, size, USER_ORDER)));
+    }
+
+    @Override
+    public List<UserDto> getUsersAfter(PageCursor cursor, Integer size) {
+        return toUserDtos(userRepository.findAllByIdGreaterThan(cursor.getId(), PageRequest.of(0, size, USER_ORDER)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<List<UserDto>> chunkConsumer) {
+        List<User> chunk = new ArrayList<>(exportChunkSize);
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                chunk.add(user);
+                if (chunk.size() == exportChunkSize) {
+                    exportChunk(chunk, chunkConsumer);
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            exportChunk(chunk, chunkConsumer);
+        }
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(Collection<Long> userIds) {
         List<UserDto> userDtos = new ArrayList<>();
-        for (User user : userRepository.findAll()) {
+        for (User user : userRepository.findAllById(userIds)) {
             userDtos.add(toUserDto(user));
         }
         return userDtos;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void deleteUserById(Long userId) {
         userRepository.deleteById(userId);
+        userExistenceService.evict(userId);
     }
 
     private void validateForUserUpdate(Long userId, UserDto userDto) {
@@ -67,4 +130,17 @@ public class UserServiceImpl implements UserService {
         }
         userDto.setId(user.getId());
     }
+
+    private void exportChunk(List<User> chunk, Consumer<List<UserDto>> chunkConsumer) {
+        List<UserDto> userDtos = toUserDtos(chunk);
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+        chunkConsumer.accept(userDtos);
+    }
+
+    private static List<UserDto> toUserDtos(List<User> users) {
+        return users.stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -3,6 +3,10 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS booking CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS booking_events CASCADE;
+DROP SEQUENCE IF EXISTS booking_id_seq;
+DROP SEQUENCE IF EXISTS items_id_seq;
+DROP SEQUENCE IF EXISTS booking_events_id_seq;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -27,6 +31,12 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE UNIQUE INDEX IF NOT EXISTS requests_index ON requests (id);
 
+CREATE INDEX IF NOT EXISTS requests_requestor_index ON requests (requestor_id);
+
+CREATE INDEX IF NOT EXISTS requests_created_index ON requests (created, id);
+
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -35,6 +45,7 @@ CREATE TABLE IF NOT EXISTS items
     available       BOOLEAN                                 NOT NULL,
     owner_id        BIGINT,
     item_request_id BIGINT,
+    version         BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_items_to_requests FOREIGN KEY (item_request_id) REFERENCES requests (id),
     CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
@@ -42,6 +53,12 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE UNIQUE INDEX IF NOT EXISTS items_index ON items (id);
 
+CREATE INDEX IF NOT EXISTS items_owner_index ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS items_request_index ON items (item_request_id);
+
+CREATE SEQUENCE IF NOT EXISTS booking_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS booking
 (
     id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -50,6 +67,7 @@ CREATE TABLE IF NOT EXISTS booking
     item_id    BIGINT                                  NOT NULL,
     booker_id  BIGINT                                  NOT NULL,
     status     VARCHAR,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_booking_to_users FOREIGN KEY (booker_id) REFERENCES users (id),
     CONSTRAINT fk_booking_to_items FOREIGN KEY (item_id) REFERENCES items (id)
@@ -57,6 +75,29 @@ CREATE TABLE IF NOT EXISTS booking
 
 CREATE UNIQUE INDEX IF NOT EXISTS booking_index ON booking (id);
 
+CREATE INDEX IF NOT EXISTS booking_booker_start_id_index ON booking (booker_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS booking_item_start_status_index ON booking (item_id, start_date, status);
+
+CREATE SEQUENCE IF NOT EXISTS booking_events_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS booking_events
+(
+    id              BIGINT  NOT NULL,
+    booking_id      BIGINT  NOT NULL,
+    item_id         BIGINT  NOT NULL,
+    booker_id       BIGINT  NOT NULL,
+    booking_version BIGINT  NOT NULL,
+    previous_status VARCHAR,
+    status          VARCHAR NOT NULL,
+    start_date      TIMESTAMP WITHOUT TIME ZONE,
+    end_date        TIMESTAMP WITHOUT TIME ZONE,
+    occurred_at     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS booking_events_occurred_index ON booking_events (occurred_at, id);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
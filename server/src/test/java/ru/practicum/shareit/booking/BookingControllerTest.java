@@ -6,30 +6,42 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
 @AutoConfigureMockMvc
+@Import(EntityTags.class)
 public class BookingControllerTest {
 
     @MockBean
@@ -100,6 +112,43 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    void createBookings() throws Exception {
+        when(bookingService.createBookings(eq(userDto.getId()), anyList()))
+                .thenReturn(List.of(BookingBatchResultDto.created(0, bookingDto),
+                        BookingBatchResultDto.rejected(1, "Предмет занят другим пользователем.")));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userDto.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].created", is(true)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].created", is(false)))
+                .andExpect(jsonPath("$[1].error", is("Предмет занят другим пользователем.")));
+    }
+
+    @Test
+    void exportBookingsForOwner() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<ItemWithBookingDto>> chunkConsumer = invocation.getArgument(1);
+            chunkConsumer.accept(List.of(itemWithBookingDto, itemWithBookingDto));
+            chunkConsumer.accept(List.of(itemWithBookingDto));
+            return null;
+        }).when(bookingService).exportBookingsForOwner(eq(userDto.getId()), any());
+
+        String line = mapper.writeValueAsString(itemWithBookingDto) + "\n";
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(line + line + line));
+    }
+
     @Test
     void updateBooking() throws Exception {
         when(bookingService.updateBooking(eq(userDto.getId()), anyLong(), anyString()))
@@ -123,6 +172,29 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item[?(@.owner == 1)]").exists());
     }
 
+    @Test
+    void updateBookingConflict() throws Exception {
+        when(bookingService.updateBooking(eq(userDto.getId()), anyLong(), anyString()))
+                .thenThrow(new ConflictException("Предмет уже забронирован на это время."));
+
+        mvc.perform(patch("/bookings/{bookingId}", bookingDto.getId())
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Предмет уже забронирован на это время.")));
+    }
+
+    @Test
+    void updateBookingStaleVersion() throws Exception {
+        when(bookingService.updateBooking(eq(userDto.getId()), anyLong(), anyString()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, bookingDto.getId()));
+
+        mvc.perform(patch("/bookings/{bookingId}", bookingDto.getId())
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getBookingById() throws Exception {
         when(bookingService.getBookingById(eq(userDto.getId()), anyLong()))
@@ -178,4 +250,31 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item[?(@.available == true)]").exists())
                 .andExpect(jsonPath("$[0].item[?(@.owner == 1)]").exists());
     }
+
+    @Test
+    void getAllBookingsByUserIdWithCursor() throws Exception {
+        PageCursor cursor = PageCursor.of(LocalDateTime.now().plusDays(5), 7L);
+        when(bookingService.getAllBookingsByUserIdAfter(eq(userDto.getId()), eq("ALL"), eq(cursor), eq(1)))
+                .thenReturn(List.of(itemWithBookingDto));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userDto.getId())
+                        .param("state", "ALL")
+                        .param("cursor", cursor.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.of(itemWithBookingDto.getStart(), itemWithBookingDto.getId()).encode()));
+    }
+
+    @Test
+    void getAllBookingsByUserIdWithMalformedCursor() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userDto.getId())
+                        .param("state", "ALL")
+                        .param("cursor", "not-a-cursor")
+                        .param("size", "1"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalTreeTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsUsesHalfOpenIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, hour(10), hour(12));
+
+        assertTrue(tree.overlaps(hour(11), hour(13)));
+        assertTrue(tree.overlaps(hour(9), hour(11)));
+        assertFalse(tree.overlaps(hour(12), hour(14)));
+        assertFalse(tree.overlaps(hour(8), hour(10)));
+    }
+
+    @Test
+    void matchesBruteForceAfterRandomInsertsAndRemovals() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, LocalDateTime[]> intervals = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            LocalDateTime start = hour(random.nextInt(5000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            tree.insert(id, start, end);
+            intervals.put(id, new LocalDateTime[]{start, end});
+            if (random.nextInt(3) == 0) {
+                long removed = 1 + random.nextInt((int) id);
+                LocalDateTime[] interval = intervals.remove(removed);
+                if (interval != null) {
+                    assertTrue(tree.remove(removed, interval[0]));
+                }
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int query = 0; query < 500; query++) {
+            LocalDateTime from = hour(random.nextInt(5100));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(24));
+            Set<Long> expected = intervals.entrySet().stream()
+                    .filter(entry -> entry.getValue()[0].isBefore(to) && entry.getValue()[1].isAfter(from))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            List<IntervalTree.Interval> actual = tree.overlapping(from, to);
+
+            assertEquals(expected, actual.stream().map(IntervalTree.Interval::getId).collect(Collectors.toSet()));
+            assertEquals(expected.size(), actual.size());
+            assertEquals(!expected.isEmpty(), tree.overlaps(from, to));
+        }
+    }
+
+    private static LocalDateTime hour(int hours) {
+        return EPOCH.plusHours(hours);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemAvailabilityEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+    private final ItemAvailabilityEngine engine = new ItemAvailabilityEngine(bookingRepository, 100,
+            Duration.ofMinutes(1));
+
+    @Test
+    void savedBookingInvalidatesCalendarSoNextReadReloadsIt() {
+        Booking booking = Booking.builder()
+                .id(1L)
+                .itemId(7L)
+                .start(START)
+                .end(START.plusHours(2))
+                .status(BookingState.APPROVED)
+                .build();
+        when(bookingRepository.findAllByItemIdInAndStatusIn(any(), any()))
+                .thenReturn(List.of(), List.of(booking));
+
+        assertTrue(engine.isFree(7L, START, START.plusHours(1)));
+        assertEquals(Set.of(7L), engine.findFree(List.of(7L), START, START.plusHours(1)));
+
+        engine.onBookingSaved(booking);
+
+        assertFalse(engine.isFree(7L, START, START.plusHours(1)));
+        assertEquals(Set.of(), engine.findFree(List.of(7L), START, START.plusHours(1)));
+        verify(bookingRepository, times(2)).findAllByItemIdInAndStatusIn(any(), any());
+    }
+}
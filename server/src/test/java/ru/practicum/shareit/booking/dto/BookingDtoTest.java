@@ -64,7 +64,7 @@ public class BookingDtoTest {
                 BookingState.APPROVED, new BookingDto.BookerDto(1L), new BookingDto.ItemDto(1L, "axe"));
         Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusMinutes(2),
                 1L, 1L,
-                BookingState.APPROVED);
+                BookingState.APPROVED, 0L);
         if (toBooking(bookingDto).equals(booking)) {
             booking = toBooking(bookingDto);
         }
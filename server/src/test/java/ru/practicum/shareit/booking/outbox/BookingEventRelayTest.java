@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.SimpleBookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingEventDto;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class BookingEventRelayTest {
+
+    private final EntityManager em;
+
+    private final BookingServiceImpl bookingService;
+
+    private final BookingEventRepository bookingEventRepository;
+
+    private final BookingEventRelay bookingEventRelay;
+
+    private final RecordingSubscriber subscriber;
+
+    private final ObjectMapper mapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        subscriber.events.clear();
+        subscriber.failing = false;
+        bookingEventRepository.deleteAllInBatch();
+
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@outbox.ru");
+        em.persist(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@outbox.ru");
+        em.persist(booker);
+
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        em.persist(item);
+    }
+
+    @Test
+    void relaysBookingLifecycleInOrderAndDrainsOutbox() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(booker.getId(),
+                new SimpleBookingDto(null, item.getId(), null, start, start.plusHours(2))).getId();
+        bookingService.updateBooking(owner.getId(), bookingId, "false");
+        double relayedBefore = meterRegistry.counter(BookingEventRelay.RELAYED_METRIC_NAME).count();
+
+        assertEquals(2, bookingEventRelay.relayBatch());
+
+        assertThat(subscriber.events, hasSize(2));
+        BookingEventDto created = subscriber.events.get(0);
+        BookingEventDto rejected = subscriber.events.get(1);
+        assertEquals(bookingId, created.getBookingId());
+        assertEquals(booker.getId(), created.getBookerId());
+        assertNull(created.getPreviousStatus());
+        assertEquals(BookingState.WAITING, created.getStatus());
+        assertEquals(BookingState.WAITING, rejected.getPreviousStatus());
+        assertEquals(BookingState.REJECTED, rejected.getStatus());
+        assertEquals(0L, created.getBookingVersion());
+        assertEquals(1L, rejected.getBookingVersion());
+        assertThat(bookingEventRepository.findAll(), empty());
+        assertEquals(relayedBefore + 2, meterRegistry.counter(BookingEventRelay.RELAYED_METRIC_NAME).count());
+        assertEquals(0, bookingEventRelay.relayBatch());
+    }
+
+    @Test
+    void keepsEventsInOutboxWhenSubscriberFails() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBookings(booker.getId(), List.of(
+                new SimpleBookingDto(null, item.getId(), null, start, start.plusHours(1)),
+                new SimpleBookingDto(null, item.getId(), null, start.plusHours(2), start.plusHours(3))));
+        subscriber.failing = true;
+        double failedBefore = meterRegistry.counter(BookingEventRelay.FAILED_METRIC_NAME).count();
+
+        bookingEventRelay.relay();
+
+        assertThat(subscriber.events, empty());
+        assertThat(bookingEventRepository.findAll(), hasSize(2));
+        assertEquals(failedBefore + 1, meterRegistry.counter(BookingEventRelay.FAILED_METRIC_NAME).count());
+    }
+
+    @Test
+    void fileLogAppendsOneJsonLinePerEvent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events").resolve("booking-events.ndjson");
+        BookingEventFileLog fileLog = new BookingEventFileLog(mapper, file.toString());
+        BookingEventDto event = toBookingEventDto(new BookingEvent(1L, 7L, item.getId(), booker.getId(), 1L,
+                BookingState.WAITING, BookingState.APPROVED, null, null, LocalDateTime.of(2026, 1, 2, 3, 4, 5)));
+
+        fileLog.onEvents(List.of(event));
+        fileLog.onEvents(List.of(event));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines, hasSize(2));
+        assertThat(lines.get(0), containsString("\"status\":\"APPROVED\""));
+        assertThat(lines.get(0), containsString("\"bookingVersion\":1"));
+        assertThat(lines.get(0), containsString("\"occurredAt\":\"2026-01-02T03:04:05\""));
+        assertThat(lines, contains(lines.get(0), lines.get(0)));
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements BookingEventSubscriber {
+
+        private final List<BookingEventDto> events = new ArrayList<>();
+
+        private boolean failing;
+
+        @Override
+        public void onEvents(List<BookingEventDto> batch) {
+            if (failing) {
+                throw new IllegalStateException("subscriber is down");
+            }
+            events.addAll(batch);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.item.model.Item;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -27,19 +30,64 @@ public class BookingRepositoryTest {
     private UserRepository userRepository;
     private Booking booking;
 
+    private User user;
+
+    private Item item;
+
     @BeforeEach
     void setUp() {
-        userRepository.save(new User(1L, "Egor", "egorka@mail.ru"));
-        itemRepository.save(new Item(1L, "Item", "Coolest", true, 1L, null));
+        user = userRepository.save(new User(1L, "Egor", "egorka@mail.ru"));
+        item = itemRepository.save(new Item(1L, "Item", "Coolest", true, user.getId(), null, 0L));
         booking = repository.save(new Booking(1L,
                 LocalDateTime.now().minusMinutes(1),
                 LocalDateTime.now().plusMinutes(1),
-                1L, 1L, BookingState.APPROVED));
+                item.getId(), user.getId(), BookingState.APPROVED, 0L));
     }
 
     @Test
     void getBooking() {
-        Booking booking1 = repository.findBookingByItemIdAndEndIsAfter(1L, LocalDateTime.now().plusMinutes(3));
+        Booking booking1 = repository.findBookingByItemIdAndEndIsAfter(item.getId(), LocalDateTime.now().plusMinutes(3));
         assertEquals(booking.getId(), booking1.getId());
     }
+
+    @Test
+    void findBookingsByBookerAndStatusAppliesStateBeforePaging() {
+        Booking waiting = repository.save(new Booking(null,
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item.getId(), user.getId(), BookingState.WAITING, 0L));
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by("start").descending());
+
+        List<Booking> bookings = repository.findBookingsByBookerAndStatus(user.getId(),
+                BookingState.WAITING, firstPage);
+
+        assertEquals(1, bookings.size());
+        assertEquals(waiting.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findPastBookingsByOwnerIdAppliesStateBeforePaging() {
+        Booking past = repository.save(new Booking(null,
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item.getId(), user.getId(), BookingState.APPROVED, 0L));
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by("start").descending());
+
+        List<Booking> bookings = repository.findPastBookingsByOwnerId(user.getId(), LocalDateTime.now(), firstPage);
+
+        assertEquals(1, bookings.size());
+        assertEquals(past.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findCurrentBookingsByOwnerIdIgnoresStatus() {
+        booking.setStatus(BookingState.REJECTED);
+        repository.save(booking);
+
+        List<Booking> bookings = repository.findCurrentBookingsByOwnerId(user.getId(), LocalDateTime.now(),
+                PageRequest.of(0, 10));
+
+        assertEquals(1, bookings.size());
+        assertEquals(booking.getId(), bookings.get(0).getId());
+    }
 }
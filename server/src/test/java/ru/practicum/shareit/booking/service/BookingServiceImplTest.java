@@ -1,28 +1,39 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.SimpleBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -89,6 +100,49 @@ public class BookingServiceImplTest {
         assertThat(finalBooking.getStatus(), equalTo(bookingDto.getStatus()));
     }
 
+    @Test
+    void createBookingsReportsPerEntryResultsAndBatchesInserts() {
+        Item ownItem = new Item();
+        ownItem.setName("Своя вещь");
+        ownItem.setDescription("Моя");
+        ownItem.setAvailable(true);
+        ownItem.setOwner(user.getId());
+        em.persist(ownItem);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<SimpleBookingDto> entries = List.of(
+                new SimpleBookingDto(null, item.getId(), null, start, start.plusHours(1)),
+                new SimpleBookingDto(null, 9999L, null, start, start.plusHours(1)),
+                new SimpleBookingDto(null, item.getId(), null, start.plusHours(2), start.plusHours(1)),
+                new SimpleBookingDto(null, ownItem.getId(), null, start, start.plusHours(1)),
+                new SimpleBookingDto(null, item.getId(), null, start.plusDays(1), start.plusDays(2)));
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(user.getId(), entries);
+        em.flush();
+        long statementCount = statistics.getPrepareStatementCount();
+        long insertCount = statistics.getEntityInsertCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(results, hasSize(5));
+        assertThat(results.stream().map(BookingBatchResultDto::getCreated).collect(Collectors.toList()),
+                contains(true, false, false, false, true));
+        assertEquals("Предмета с id 9999 не существует.", results.get(1).getError());
+        assertEquals("Некорректная дата бронирования", results.get(2).getError());
+        assertEquals("Владелец не может бронировать предмет.", results.get(3).getError());
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(BookingState.WAITING));
+        assertThat(em.find(Booking.class, results.get(4).getBooking().getId()).getItemId(), equalTo(item.getId()));
+        assertThat(insertCount, equalTo(4L));
+        assertThat(statementCount, lessThanOrEqualTo(5L));
+    }
+
+    @Test
+    void createBookingsFailedEmptyBatch() {
+        assertThrows(ValidationException.class, () -> bookingService.createBookings(user.getId(), List.of()));
+    }
+
     @Test
     void createBookingFailedOwnerBooking() {
         item.setOwner(user.getId());
@@ -122,6 +176,55 @@ public class BookingServiceImplTest {
         assertThat(booking1.getStatus(), equalTo(BookingState.APPROVED));
     }
 
+    @Test
+    void updateBookingFailedUnknownBooking() {
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () ->
+                bookingService.updateBooking(user.getId(), booking.getId() + 1000, "true"));
+
+        assertEquals(String.format("Брони с id %s не существует", booking.getId() + 1000), thrown.getMessage());
+    }
+
+    @Test
+    void updateBookingFailedNotOwner() {
+        booking.setStatus(BookingState.WAITING);
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () ->
+                bookingService.updateBooking(user.getId(), booking.getId(), "true"));
+
+        assertEquals("Статус бронирования может изменить только владелец", thrown.getMessage());
+        assertThat(booking.getStatus(), equalTo(BookingState.WAITING));
+    }
+
+    @Test
+    void updateBookingFailedApprovedOverlap() {
+        item.setOwner(user.getId());
+        Booking overlapping = new Booking();
+        overlapping.setStart(booking.getStart().plusHours(1));
+        overlapping.setEnd(booking.getEnd().plusDays(1));
+        overlapping.setItemId(item.getId());
+        overlapping.setStatus(BookingState.WAITING);
+        overlapping.setBooker(user.getId());
+        em.persist(overlapping);
+
+        ConflictException thrown = assertThrows(ConflictException.class, () ->
+                bookingService.updateBooking(user.getId(), overlapping.getId(), "true"));
+
+        assertEquals("Предмет уже забронирован на это время.", thrown.getMessage());
+        assertThat(overlapping.getStatus(), equalTo(BookingState.WAITING));
+    }
+
+    @Test
+    void updateBookingIncrementsVersion() {
+        booking.setStatus(BookingState.WAITING);
+        item.setOwner(user.getId());
+        em.flush();
+        long version = booking.getVersion();
+
+        bookingService.updateBooking(user.getId(), booking.getId(), "true");
+
+        assertThat(booking.getVersion(), equalTo(version + 1));
+    }
+
     @Test
     void getBookingById() {
         item.setOwner(user.getId());
@@ -405,4 +508,124 @@ public class BookingServiceImplTest {
         assertThat(withBookingDto.getEnd(), equalTo(finalBooking.getEnd()));
         assertThat(withBookingDto.getStatus(), equalTo(finalBooking.getStatus()));
     }
+
+    @Test
+    void getAllBookingsForOwnerLoadsItemsInOneQuery() {
+        User booker = new User();
+        booker.setName("Jill");
+        booker.setEmail("jill@ya.ru");
+        em.persist(booker);
+        item.setOwner(user.getId());
+        for (int i = 0; i < 5; i++) {
+            Item ownerItem = new Item();
+            ownerItem.setName("Вещь " + i);
+            ownerItem.setDescription("Важная вещь " + i);
+            ownerItem.setAvailable(true);
+            ownerItem.setOwner(user.getId());
+            em.persist(ownerItem);
+
+            Booking ownerBooking = new Booking();
+            ownerBooking.setStart(LocalDateTime.now().plusDays(i + 1));
+            ownerBooking.setEnd(LocalDateTime.now().plusDays(i + 2));
+            ownerBooking.setItemId(ownerItem.getId());
+            ownerBooking.setStatus(BookingState.WAITING);
+            ownerBooking.setBooker(booker.getId());
+            em.persist(ownerBooking);
+        }
+        em.flush();
+        bookingService.getAllBookingsForOwner(user.getId(), "ALL", 0, 10);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<ItemWithBookingDto> withBookingDtos = bookingService
+                .getAllBookingsForOwner(user.getId(), "ALL", 0, 10);
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(withBookingDtos, hasSize(6));
+        assertThat(statementCount, lessThanOrEqualTo(2L));
+    }
+
+    @Test
+    void exportBookingsForOwnerStreamsNewestFirstWithItems() {
+        User booker = new User();
+        booker.setName("Jill");
+        booker.setEmail("jill@ya.ru");
+        em.persist(booker);
+        item.setOwner(user.getId());
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking ownerBooking = new Booking();
+            ownerBooking.setStart(LocalDateTime.now().plusDays(10 - i));
+            ownerBooking.setEnd(LocalDateTime.now().plusDays(11 - i));
+            ownerBooking.setItemId(item.getId());
+            ownerBooking.setStatus(BookingState.WAITING);
+            ownerBooking.setBooker(booker.getId());
+            em.persist(ownerBooking);
+            expected.add(ownerBooking.getId());
+        }
+        expected.add(booking.getId());
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<List<ItemWithBookingDto>> chunks = new ArrayList<>();
+        bookingService.exportBookingsForOwner(user.getId(), chunks::add);
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(chunks, hasSize(1));
+        assertThat(chunks.get(0).stream().map(ItemWithBookingDto::getId).collect(Collectors.toList()),
+                equalTo(expected));
+        assertThat(chunks.get(0).get(0).getItem().getName(), equalTo("Вещь"));
+        assertThat(statementCount, lessThanOrEqualTo(3L));
+    }
+
+    @Test
+    void exportBookingsForOwnerFailedByWrongUserId() {
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.exportBookingsForOwner(99L, chunk -> {
+                }));
+    }
+
+    @Test
+    void getAllBookingsByUserIdAfterWalksPagesWithoutGapsOnEqualStarts() {
+        LocalDateTime sameStart = LocalDateTime.now().plusDays(3).withNano(123_456_700);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Booking sameStartBooking = new Booking();
+            sameStartBooking.setStart(sameStart);
+            sameStartBooking.setEnd(sameStart.plusDays(1));
+            sameStartBooking.setItemId(item.getId());
+            sameStartBooking.setStatus(BookingState.WAITING);
+            sameStartBooking.setBooker(user.getId());
+            em.persist(sameStartBooking);
+            expected.add(0, sameStartBooking.getId());
+        }
+        expected.add(booking.getId());
+        em.flush();
+
+        List<Long> walked = new ArrayList<>();
+        List<ItemWithBookingDto> page = bookingService.getAllBookingsByUserId(user.getId(), "ALL", 0, 2);
+        for (int guard = 0; guard < 10 && !page.isEmpty(); guard++) {
+            walked.addAll(page.stream().map(ItemWithBookingDto::getId).collect(Collectors.toList()));
+            ItemWithBookingDto last = page.get(page.size() - 1);
+            page = bookingService.getAllBookingsByUserIdAfter(user.getId(), "ALL",
+                    PageCursor.of(last.getStart(), last.getId()), 2);
+        }
+
+        assertThat(walked, contains(expected.toArray()));
+    }
+
+    @Test
+    void getBookingsAfterCursorRequiresSize() {
+        PageCursor cursor = PageCursor.of(booking.getStart(), booking.getId());
+
+        assertThrows(ValidationException.class, () ->
+                bookingService.getAllBookingsByUserIdAfter(user.getId(), "ALL", cursor, null));
+        assertThrows(ValidationException.class, () ->
+                bookingService.getAllBookingsForOwnerAfter(user.getId(), "ALL", cursor, 0));
+    }
 }
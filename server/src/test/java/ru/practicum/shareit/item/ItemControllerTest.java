@@ -6,12 +6,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
+import ru.practicum.shareit.item.importer.ItemImportService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,12 +24,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toBooking;
@@ -33,11 +40,14 @@ import static ru.practicum.shareit.booking.mapper.BookingMapper.toSimpleBookingD
 
 @WebMvcTest(controllers = ItemController.class)
 @AutoConfigureMockMvc
+@Import(EntityTags.class)
 public class ItemControllerTest {
 
     @MockBean
     private ItemServiceImpl itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
 
     @Autowired
     private MockMvc mvc;
@@ -189,7 +199,7 @@ public class ItemControllerTest {
 
     @Test
     void getAllItems() throws Exception {
-        when(itemService.getAllItems(eq(userDto.getId())))
+        when(itemService.getAllItems(eq(userDto.getId()), isNull(), isNull()))
                 .thenReturn(List.of(itemWithBookingHistory));
 
         mvc.perform(get("/items")
@@ -218,7 +228,7 @@ public class ItemControllerTest {
 
     @Test
     void searchItemsByUserId() throws Exception {
-        when(itemService.searchForItemsResult(eq(userDto.getId()), anyString()))
+        when(itemService.searchForItemsResult(eq(userDto.getId()), anyString(), isNull(), isNull()))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search").param("text", "пила")
@@ -230,4 +240,24 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())))
                 .andExpect(jsonPath("$[0].owner", is(itemDto.getOwner()), Long.class));
     }
+
+    @Test
+    void importItemsStreamsReports() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemImportReportDto> reporter = invocation.getArgument(3);
+            reporter.accept(ItemImportReportDto.error(2, "Отсутствует название предмета."));
+            reporter.accept(ItemImportReportDto.progress(ItemImportReportDto.SUMMARY, 2, 1, 1));
+            return null;
+        }).when(itemImportService).importItems(eq(userDto.getId()), any(), any(), any());
+
+        mvc.perform(post("/items/import")
+                        .content("name,description,available\nПила,Острая,true\n,Без названия,true\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", userDto.getId())
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"type\":\"error\",\"line\":2,\"error\":\"Отсутствует название предмета.\"}\n"
+                        + "{\"type\":\"summary\",\"processed\":2,\"imported\":1,\"failed\":1}\n"));
+    }
 }
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = "shareit.items.import.batch-size=2")
+public class ItemImportServiceTest {
+
+    private final EntityManager em;
+
+    private final ItemImportService itemImportService;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final UserExistenceService userExistenceService;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ObjectMapper objectMapper;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Jack");
+        user.setEmail("importer@ya.ru");
+        em.persist(user);
+    }
+
+    @Test
+    void importNdjsonReportsRowErrorsAndProgressPerBatch() throws IOException {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"
+                + "\n"
+                + "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Острая\",\"available\":true}\r\n"
+                + "not json\n"
+                + "{\"name\":\"Молоток\",\"description\":\"Тяжелый\",\"available\":true,\"requestId\":9999}\n"
+                + "{\"name\":\"Отвертка\",\"description\":\"Крестовая\",\"available\":true}";
+        List<ItemImportReportDto> reports = new ArrayList<>();
+
+        itemImportService.importItems(user.getId(), ItemImportService.NDJSON,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), reports::add);
+
+        assertThat(reports.stream().map(ItemImportReportDto::getType).collect(Collectors.toList()),
+                contains("error", "progress", "error", "error", "progress", "summary"));
+        assertThat(reports.get(0).getLine(), equalTo(3L));
+        assertThat(reports.get(0).getError(), equalTo("Отсутствует название предмета."));
+        assertThat(reports.get(1).getImported(), equalTo(2L));
+        assertThat(reports.get(2).getLine(), equalTo(5L));
+        assertThat(reports.get(3).getError(), equalTo("Запрос не найден."));
+        ItemImportReportDto summary = reports.get(5);
+        assertThat(summary.getProcessed(), equalTo(6L));
+        assertThat(summary.getImported(), equalTo(3L));
+        assertThat(summary.getFailed(), equalTo(3L));
+        assertThat(ownedItems(), contains("Дрель", "Отвертка", "Пила"));
+    }
+
+    @Test
+    void importRetriesFailedBatchRowByRowAndAlwaysWritesSummary() throws IOException {
+        ItemRepository failingRepository = mock(ItemRepository.class, delegatesTo(itemRepository));
+        doAnswer(invocation -> {
+            Iterable<Item> items = invocation.getArgument(0);
+            for (Item item : items) {
+                if (item.getName().equals("Сломанный")) {
+                    throw new DataIntegrityViolationException("broken row");
+                }
+            }
+            return itemRepository.saveAll(items);
+        }).when(failingRepository).saveAll(anyIterable());
+        ItemImportService importer = new ItemImportService(failingRepository, itemRequestRepository,
+                userExistenceService, itemSearchEngine, objectMapper, em, transactionManager, 2, 65536);
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"
+                + "{\"name\":\"" + "Я".repeat(300) + "\",\"description\":\"Длинная\",\"available\":true}\n"
+                + "{\"name\":\"Сломанный\",\"description\":\"Не сохранится\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Острая\",\"available\":true}";
+        List<ItemImportReportDto> reports = new ArrayList<>();
+
+        importer.importItems(user.getId(), ItemImportService.NDJSON,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), reports::add);
+
+        assertThat(reports.stream().map(ItemImportReportDto::getType).collect(Collectors.toList()),
+                contains("error", "error", "progress", "summary"));
+        assertThat(reports.get(0).getLine(), equalTo(2L));
+        assertThat(reports.get(0).getError(), equalTo("Название предмета длиннее 255 символов."));
+        assertThat(reports.get(1).getLine(), equalTo(3L));
+        assertThat(reports.get(1).getError(), equalTo("Не удалось сохранить предмет."));
+        ItemImportReportDto summary = reports.get(3);
+        assertThat(summary.getProcessed(), equalTo(4L));
+        assertThat(summary.getImported(), equalTo(2L));
+        assertThat(summary.getFailed(), equalTo(2L));
+        assertThat(ownedItems(), contains("Дрель", "Пила"));
+    }
+
+    @Test
+    void importCsvHandlesQuotedFields() throws IOException {
+        String body = "name,description,available\n"
+                + "\"Клей, суперклей\",\"Тюбик \"\"Момент\"\"\",true\n"
+                + "Лестница,\"Две\nсекции\",TRUE\n"
+                + "Тачка,Садовая,может быть\n";
+        List<ItemImportReportDto> reports = new ArrayList<>();
+
+        itemImportService.importItems(user.getId(), ItemImportService.CSV,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), reports::add);
+
+        assertThat(reports, hasSize(3));
+        assertThat(reports.get(0).getType(), equalTo("progress"));
+        assertThat(reports.get(1).getLine(), equalTo(5L));
+        assertThat(reports.get(1).getError(), equalTo("Некорректное значение available: может быть"));
+        assertThat(reports.get(2).getImported(), equalTo(2L));
+        assertThat(ownedItems(), contains("Клей, суперклей", "Лестница"));
+        Item ladder = em.createQuery("SELECT i FROM Item i WHERE i.name = 'Лестница'", Item.class).getSingleResult();
+        assertThat(ladder.getDescription(), equalTo("Две\nсекции"));
+    }
+
+    @Test
+    void importCsvFailedWithoutRequiredColumns() {
+        assertThrows(ValidationException.class, () -> itemImportService.importItems(user.getId(),
+                ItemImportService.CSV,
+                new ByteArrayInputStream("name,available\n".getBytes(StandardCharsets.UTF_8)),
+                report -> {
+                }));
+    }
+
+    private List<String> ownedItems() {
+        return em.createQuery("SELECT i.name FROM Item i WHERE i.owner = :owner ORDER BY i.name", String.class)
+                .setParameter("owner", user.getId())
+                .getResultList();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InvertedIndexItemSearchEngineTest {
+    private InvertedIndexItemSearchEngine searchEngine;
+
+    private Item drill;
+
+    private Item screwdriver;
+
+    private Item glue;
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        drill = new Item(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true, 1L, null, 0L);
+        screwdriver = new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, 1L, null, 0L);
+        glue = new Item(3L, "Клей Момент", "Тюбик суперклея марки Момент", false, 1L, null, 0L);
+        Map<Long, Item> items = List.of(drill, screwdriver, glue).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(drill, screwdriver, glue), PageRequest.of(0, 1000), 3));
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).collect(Collectors.toList());
+        });
+
+        searchEngine = new InvertedIndexItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void searchMatchesSubstringsCaseInsensitively() {
+        assertEquals(List.of(drill, screwdriver), searchEngine.search("аккУМУляторная", Pageable.unpaged()));
+        assertEquals(List.of(drill), searchEngine.search("дРелЬ", Pageable.unpaged()));
+        assertEquals(List.of(screwdriver), searchEngine.search("оТверТ", Pageable.unpaged()));
+        assertEquals(List.of(drill, screwdriver), searchEngine.search("ак", Pageable.unpaged()));
+    }
+
+    @Test
+    void searchSkipsUnavailableItemsAndPages() {
+        assertEquals(List.of(), searchEngine.search("клей", Pageable.unpaged()));
+        assertEquals(List.of(screwdriver), searchEngine.search("аккумулятор", PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void onItemSavedUpdatesIndex() {
+        glue.setAvailable(true);
+        searchEngine.onItemSaved(glue);
+        drill.setAvailable(false);
+        searchEngine.onItemSaved(drill);
+        screwdriver.setName("Шуруповерт");
+        searchEngine.onItemSaved(screwdriver);
+
+        assertEquals(List.of(glue), searchEngine.search("клей", Pageable.unpaged()));
+        assertEquals(List.of(screwdriver), searchEngine.search("аккумулятор", Pageable.unpaged()));
+        assertEquals(List.of(screwdriver), searchEngine.search("отвертка", Pageable.unpaged()));
+        assertEquals(List.of(screwdriver), searchEngine.search("шуруп", Pageable.unpaged()));
+        assertEquals(List.of(), searchEngine.search("дрель", Pageable.unpaged()));
+    }
+}
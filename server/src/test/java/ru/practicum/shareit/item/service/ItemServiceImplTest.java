@@ -1,15 +1,21 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
 import ru.practicum.shareit.item.model.Comment;
@@ -21,12 +27,15 @@ import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toBooking;
@@ -44,6 +53,8 @@ public class ItemServiceImplTest {
 
     private final ItemServiceImpl itemService;
 
+    private final CacheManager cacheManager;
+
     private User user;
 
     private Item item;
@@ -63,6 +74,17 @@ public class ItemServiceImplTest {
         em.persist(item);
     }
 
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end, BookingState status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBooker(user.getId());
+        booking.setStatus(status);
+        em.persist(booking);
+        return booking;
+    }
+
     @AfterEach
     void afterEach() {
         em.createNativeQuery("drop table items cascade ");
@@ -256,7 +278,7 @@ public class ItemServiceImplTest {
         comment.setCreated(LocalDate.now());
         em.persist(comment);
 
-        List<ItemWithBookingHistory> itemsWithBookings = itemService.getAllItems(user.getId());
+        List<ItemWithBookingHistory> itemsWithBookings = itemService.getAllItems(user.getId(), null, null);
 
         TypedQuery<Item> query = em.createQuery("SELECT i FROM Item i WHERE i.id = :id", Item.class);
         Item item1 = query.setParameter("id", item.getId()).getSingleResult();
@@ -288,7 +310,7 @@ public class ItemServiceImplTest {
     @Test
     void searchForItemsResult() {
         item.setDescription("important item");
-        List<ItemDto> items = itemService.searchForItemsResult(user.getId(), "pOrt");
+        List<ItemDto> items = itemService.searchForItemsResult(user.getId(), "pOrt", null, null);
 
         assertThat(items, hasSize(1));
 
@@ -299,4 +321,179 @@ public class ItemServiceImplTest {
 
         assertThat(item1, equalTo(item2));
     }
+
+    @Test
+    void getAllItemsLoadsBookingHistoryFromDatabase() {
+        Booking lastBooking = new Booking();
+        lastBooking.setStart(LocalDateTime.now().minusDays(2));
+        lastBooking.setEnd(LocalDateTime.now().minusDays(1));
+        lastBooking.setItemId(item.getId());
+        lastBooking.setBooker(user.getId());
+        lastBooking.setStatus(BookingState.APPROVED);
+        em.persist(lastBooking);
+        em.flush();
+        em.clear();
+
+        List<ItemWithBookingHistory> itemsWithBookings = itemService.getAllItems(user.getId(), null, null);
+
+        assertThat(itemsWithBookings, hasSize(1));
+        assertThat(itemsWithBookings.get(0).getLastBooking().getId(), equalTo(lastBooking.getId()));
+    }
+
+    @Test
+    void getAllItemsUsesFixedNumberOfQueriesAndPages() {
+        for (int i = 0; i < 4; i++) {
+            Item ownerItem = new Item();
+            ownerItem.setName("Вещь " + i);
+            ownerItem.setDescription("Ценная вещь " + i);
+            ownerItem.setOwner(user.getId());
+            ownerItem.setAvailable(true);
+            em.persist(ownerItem);
+
+            Comment comment = new Comment();
+            comment.setText("Комментарий " + i);
+            comment.setAuthorId(user.getId());
+            comment.setItemId(ownerItem.getId());
+            comment.setCreated(LocalDate.now());
+            em.persist(comment);
+        }
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<ItemWithBookingHistory> allItems = itemService.getAllItems(user.getId(), null, null);
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        List<ItemWithBookingHistory> secondPage = itemService.getAllItems(user.getId(), 2, 2);
+
+        assertThat(allItems, hasSize(5));
+        assertThat(statementCount, lessThanOrEqualTo(4L));
+        assertThat(allItems.get(0).getComments(), hasSize(0));
+        for (ItemWithBookingHistory itemWithBookingHistory : allItems.subList(1, 5)) {
+            assertThat(itemWithBookingHistory.getComments(), hasSize(1));
+            assertThat(itemWithBookingHistory.getComments().get(0).getItem().getId(),
+                    equalTo(itemWithBookingHistory.getId()));
+        }
+        assertThat(secondPage, hasSize(2));
+        assertThat(secondPage.get(0).getId(), equalTo(allItems.get(2).getId()));
+    }
+
+    @Test
+    void searchForItemsResultRanksNameMatchesFirstAndPages() {
+        item.setDescription("Дрель для сверления");
+        Item drill = new Item();
+        drill.setName("Дрель");
+        drill.setDescription("Ударная");
+        drill.setOwner(user.getId());
+        drill.setAvailable(true);
+        em.persist(drill);
+        Item unavailableDrill = new Item();
+        unavailableDrill.setName("Старая дрель");
+        unavailableDrill.setDescription("Сломана");
+        unavailableDrill.setOwner(user.getId());
+        unavailableDrill.setAvailable(false);
+        em.persist(unavailableDrill);
+
+        List<ItemDto> items = itemService.searchForItemsResult(user.getId(), "дРЕль", null, null);
+        List<ItemDto> secondPage = itemService.searchForItemsResult(user.getId(), "дРЕль", 1, 1);
+
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getId(), equalTo(drill.getId()));
+        assertThat(items.get(1).getId(), equalTo(item.getId()));
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getId(), equalTo(item.getId()));
+        assertThat(itemService.searchForItemsResult(user.getId(), "%", null, null), hasSize(0));
+    }
+
+    @Test
+    void getItemAvailabilityReportsApprovedAndWaitingBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking approved = persistBooking(start, start.plusHours(2), BookingState.APPROVED);
+        Booking waiting = persistBooking(start.plusHours(4), start.plusHours(6), BookingState.WAITING);
+        persistBooking(start, start.plusHours(6), BookingState.REJECTED);
+
+        ItemAvailabilityDto busy = itemService.getItemAvailability(item.getId(), start.plusHours(1), start.plusHours(5));
+        ItemAvailabilityDto tentative = itemService.getItemAvailability(item.getId(),
+                start.plusHours(2), start.plusHours(5));
+
+        assertThat(busy.getFree(), equalTo(false));
+        assertThat(busy.getBookings(), hasSize(2));
+        assertThat(busy.getBookings().get(0).getId(), equalTo(approved.getId()));
+        assertThat(busy.getBookings().get(1).getId(), equalTo(waiting.getId()));
+        assertThat(tentative.getFree(), equalTo(true));
+        assertThat(tentative.getBookings(), hasSize(1));
+        assertThrows(ValidationException.class, () ->
+                itemService.getItemAvailability(item.getId(), start.plusHours(5), start.plusHours(1)));
+    }
+
+    @Test
+    void searchForItemsResultFiltersByFreeWindow() {
+        item.setName("Дрель");
+        Item bookedDrill = new Item();
+        bookedDrill.setName("Дрель ударная");
+        bookedDrill.setDescription("Мощная");
+        bookedDrill.setOwner(user.getId());
+        bookedDrill.setAvailable(true);
+        em.persist(bookedDrill);
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = persistBooking(start, start.plusDays(1), BookingState.APPROVED);
+        booking.setItemId(bookedDrill.getId());
+        em.flush();
+
+        List<ItemDto> freeItems = itemService.searchForItemsResult(user.getId(), "дрель", null, null,
+                start.plusHours(1), start.plusHours(2));
+        List<ItemDto> laterItems = itemService.searchForItemsResult(user.getId(), "дрель", null, null,
+                start.plusDays(2), start.plusDays(3));
+
+        assertThat(freeItems, hasSize(1));
+        assertThat(freeItems.get(0).getId(), equalTo(item.getId()));
+        assertThat(laterItems, hasSize(2));
+    }
+
+    @Test
+    void searchForItemsResultPagesOverFreeItems() {
+        item.setName("Дрель");
+        List<Item> drills = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item drill = new Item();
+            drill.setName("Дрель " + i);
+            drill.setDescription("Мощная");
+            drill.setOwner(user.getId());
+            drill.setAvailable(true);
+            em.persist(drill);
+            drills.add(drill);
+        }
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = persistBooking(start, start.plusDays(1), BookingState.APPROVED);
+        booking.setItemId(drills.get(0).getId());
+        em.flush();
+
+        List<ItemDto> secondPage = itemService.searchForItemsResult(user.getId(), "дрель", 1, 1,
+                start.plusHours(1), start.plusHours(2));
+        List<ItemDto> lastPage = itemService.searchForItemsResult(user.getId(), "дрель", 2, 2,
+                start.plusHours(1), start.plusHours(2));
+
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getId(), equalTo(drills.get(1).getId()));
+        assertThat(lastPage, hasSize(1));
+        assertThat(lastPage.get(0).getId(), equalTo(drills.get(2).getId()));
+    }
+
+    @Test
+    void getItemByIdIsCachedUntilUpdate() {
+        Cache itemCache = cacheManager.getCache(CacheConfig.ITEMS);
+        itemService.getItemById(item.getId());
+
+        assertThat(itemCache.get(item.getId(), ItemDto.class).getName(), equalTo("Вещь"));
+
+        ItemDto update = new ItemDto();
+        update.setName("Новое название");
+        itemService.updateItemInfo(user.getId(), item.getId(), update);
+
+        assertThat(itemCache.get(item.getId()), nullValue());
+        assertThat(itemService.getItemById(item.getId()).getName(), equalTo("Новое название"));
+    }
 }
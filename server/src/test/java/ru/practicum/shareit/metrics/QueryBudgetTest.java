@@ -0,0 +1,276 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.booking.dto.SimpleBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingHistory;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql.budget.mode=fail")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long requestId;
+
+    private final List<Long> itemIds = new ArrayList<>();
+
+    private final List<Long> waitingBookingIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() throws Exception {
+        ownerId = createUser("Владелец", "owner@budget.ru");
+        bookerId = createUser("Арендатор", "booker@budget.ru");
+        requestId = send(post("/requests")
+                .header(USER_HEADER, bookerId)
+                .content(mapper.writeValueAsString(ItemRequestDto.builder().description("Нужна дрель").build()))
+                .contentType(MediaType.APPLICATION_JSON), ItemRequestDto.class).getId();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto itemDto = ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Ударная дрель номер " + i)
+                    .available(true)
+                    .requestId(i == 0 ? requestId : null)
+                    .build();
+            Long itemId = send(post("/items")
+                    .header(USER_HEADER, ownerId)
+                    .content(mapper.writeValueAsString(itemDto))
+                    .contentType(MediaType.APPLICATION_JSON), ItemDto.class).getId();
+            itemIds.add(itemId);
+            bookingRepository.save(booking(itemId, now.minusDays(3), now.minusDays(2), BookingState.APPROVED));
+            bookingRepository.save(booking(itemId, now.plusDays(2), now.plusDays(3), BookingState.APPROVED));
+            waitingBookingIds.add(bookingRepository.save(
+                    booking(itemId, now.plusDays(5 + i), now.plusDays(6 + i), BookingState.WAITING)).getId());
+            send(post("/items/{itemId}/comment", itemId)
+                    .header(USER_HEADER, bookerId)
+                    .content(mapper.writeValueAsString(ItemWithBookingHistory.CommentDto.builder()
+                            .text("Отличная дрель")
+                            .build()))
+                    .contentType(MediaType.APPLICATION_JSON), ItemWithBookingHistory.CommentDto.class);
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        for (String table : List.of("comments", "booking", "items", "requests", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void everyControllerMethodDeclaresQueryBudget() {
+        List<String> withoutBudget = requestMappingHandlerMapping.getHandlerMethods().values().stream()
+                .filter(handlerMethod -> handlerMethod.getBeanType().getPackageName().startsWith("ru.practicum.shareit"))
+                .filter(handlerMethod -> !handlerMethod.hasMethodAnnotation(QueryBudget.class))
+                .map(QueryBudgetInterceptor::endpoint)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(), withoutBudget);
+    }
+
+    @Test
+    void userEndpointsStayWithinBudget() throws Exception {
+        Long userId = createUser("Временный", "temporary@budget.ru");
+
+        expectOk(patch("/users/{userId}", userId)
+                .content("{\"name\": \"Постоянный\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+        expectOk(get("/users/{userId}", ownerId));
+        expectOk(get("/users"));
+        expectOk(get("/users?size=1&cursor={cursor}", PageCursor.of(ownerId).encode()));
+        expectOk(get("/users/export"));
+        expectOk(delete("/users/{userId}", userId));
+    }
+
+    @Test
+    void itemEndpointsStayWithinBudget() throws Exception {
+        Long itemId = itemIds.get(0);
+
+        expectOk(patch("/items/{itemId}", itemId)
+                .header(USER_HEADER, ownerId)
+                .content("{\"description\": \"Ударная дрель с кейсом\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+        expectOk(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId));
+        expectOk(get("/items/{itemId}", itemId).header(USER_HEADER, bookerId));
+        expectOk(get("/items/{itemId}/availability", itemId)
+                .param("start", LocalDateTime.now().toString())
+                .param("end", LocalDateTime.now().plusDays(10).toString())
+                .header(USER_HEADER, bookerId));
+        expectOk(get("/items").header(USER_HEADER, ownerId));
+        expectOk(get("/items?from=0&size=2").header(USER_HEADER, ownerId));
+        expectOk(get("/items/search?text=дрель").header(USER_HEADER, bookerId));
+        expectOk(get("/items/search?text=дрель&from=0&size=2")
+                .param("freeFrom", LocalDateTime.now().plusDays(2).toString())
+                .param("freeTo", LocalDateTime.now().plusDays(4).toString())
+                .header(USER_HEADER, bookerId));
+        expectOk(post("/items/import")
+                .header(USER_HEADER, ownerId)
+                .content("{\"name\": \"Пила\", \"description\": \"Ручная пила\", \"available\": true}\n"
+                        .getBytes(StandardCharsets.UTF_8))
+                .contentType("application/x-ndjson"));
+    }
+
+    @Test
+    void freeWindowSearchStaysWithinBudgetWhenItWalksEveryChunk() throws Exception {
+        Long stockOwnerId = createUser("Склад", "stock@budget.ru");
+        itemRepository.saveAll(IntStream.range(0, 100 * ItemServiceImpl.MAX_FREE_SEARCH_CHUNKS)
+                .mapToObj(i -> Item.builder()
+                        .name("Молоток " + i)
+                        .description("Слесарный молоток")
+                        .available(true)
+                        .owner(stockOwnerId)
+                        .build())
+                .collect(Collectors.toList()));
+
+        expectOk(get("/items/search?text=молоток&from=1000&size=10")
+                .param("freeFrom", LocalDateTime.now().plusDays(1).toString())
+                .param("freeTo", LocalDateTime.now().plusDays(2).toString())
+                .header(USER_HEADER, bookerId));
+    }
+
+    @Test
+    void bookingEndpointsStayWithinBudget() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Long itemId = itemIds.get(ITEMS - 1);
+
+        expectOk(post("/bookings")
+                .header(USER_HEADER, bookerId)
+                .content(mapper.writeValueAsString(SimpleBookingDto.builder()
+                        .itemId(itemId)
+                        .start(now.plusDays(20))
+                        .end(now.plusDays(21))
+                        .build()))
+                .contentType(MediaType.APPLICATION_JSON));
+        expectOk(post("/bookings/batch")
+                .header(USER_HEADER, bookerId)
+                .content(mapper.writeValueAsString(List.of(
+                        SimpleBookingDto.builder().itemId(itemId).start(now.plusDays(30)).end(now.plusDays(31)).build(),
+                        SimpleBookingDto.builder().itemId(itemId).start(now.plusDays(40)).end(now.plusDays(41)).build())))
+                .contentType(MediaType.APPLICATION_JSON));
+        expectOk(patch("/bookings/{bookingId}?approved=true", waitingBookingIds.get(0)).header(USER_HEADER, ownerId));
+        expectOk(get("/bookings/{bookingId}", waitingBookingIds.get(1)).header(USER_HEADER, bookerId));
+        expectOk(get("/bookings?state=ALL&from=0&size=5").header(USER_HEADER, bookerId));
+        expectOk(get("/bookings/owner?state=ALL&from=0&size=20").header(USER_HEADER, ownerId));
+        expectOk(get("/bookings/owner?state=FUTURE&from=0&size=5").header(USER_HEADER, ownerId));
+        expectOk(get("/bookings?state=ALL&size={size}&cursor={cursor}", 2,
+                nextCursor(get("/bookings?state=ALL&from=0&size=2").header(USER_HEADER, bookerId)))
+                .header(USER_HEADER, bookerId));
+        expectOk(get("/bookings/owner?state=ALL&size={size}&cursor={cursor}", 2,
+                nextCursor(get("/bookings/owner?state=ALL&from=0&size=2").header(USER_HEADER, ownerId)))
+                .header(USER_HEADER, ownerId));
+        expectOk(get("/bookings/owner/export").header(USER_HEADER, ownerId));
+    }
+
+    @Test
+    void requestEndpointsStayWithinBudget() throws Exception {
+        expectOk(post("/requests")
+                .header(USER_HEADER, ownerId)
+                .content(mapper.writeValueAsString(ItemRequestDto.builder().description("Нужна стремянка").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+        expectOk(get("/requests").header(USER_HEADER, bookerId));
+        expectOk(get("/requests/all?from=0&size=10").header(USER_HEADER, ownerId));
+        expectOk(get("/requests/all?size={size}&cursor={cursor}", 1,
+                nextCursor(get("/requests/all?from=0&size=1").header(USER_HEADER, ownerId)))
+                .header(USER_HEADER, ownerId));
+        expectOk(get("/requests/{requestId}", requestId).header(USER_HEADER, ownerId));
+    }
+
+    private Long createUser(String name, String email) throws Exception {
+        return send(post("/users")
+                .content(mapper.writeValueAsString(UserDto.builder().name(name).email(email).build()))
+                .contentType(MediaType.APPLICATION_JSON), UserDto.class).getId();
+    }
+
+    private Booking booking(Long itemId, LocalDateTime start, LocalDateTime end, BookingState status) {
+        return Booking.builder()
+                .itemId(itemId)
+                .booker(bookerId)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+
+    private <T> T send(RequestBuilder request, Class<T> type) throws Exception {
+        String body = expectOk(request);
+        return mapper.readValue(body, type);
+    }
+
+    private String nextCursor(RequestBuilder request) throws Exception {
+        String cursor = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(PageCursor.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+        return cursor;
+    }
+
+    private String expectOk(RequestBuilder request) throws Exception {
+        return mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
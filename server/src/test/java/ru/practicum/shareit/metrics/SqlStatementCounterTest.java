@@ -0,0 +1,119 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.QueryBudgetProperties;
+import ru.practicum.shareit.exception.QueryBudgetExceededException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class SqlStatementCounterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsStatementsServiceAndRepositoryCallsPerRoute() throws Exception {
+        UserDto userDto = UserDto.builder()
+                .name("Мария")
+                .email("maria@metrics.ru")
+                .build();
+        String body = mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(userDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long userId = mapper.readValue(body, UserDto.class).getId();
+
+        mvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find(SqlStatementCounter.METRIC_NAME)
+                .tags("method", "POST", "uri", "/users")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.totalAmount() >= 1);
+        assertNotNull(meterRegistry.find(SqlStatementCounter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary());
+
+        Timer serviceTimer = meterRegistry.find("shareit.service")
+                .tags("class", UserServiceImpl.class.getName(), "method", "saveUser")
+                .timer();
+        assertNotNull(serviceTimer);
+        assertEquals(1, serviceTimer.count());
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "save")
+                .timer());
+    }
+
+    @Test
+    void failsStatementOverBudgetAndCountsOverrun() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlStatementCounter counter = new SqlStatementCounter(registry, QueryBudgetProperties.Mode.FAIL);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                counter.applyBudget("ItemController.getAllItems", 1);
+                counter.inspect("select * from items");
+                counter.inspect("select * from booking where item_id = 1");
+            }
+        });
+
+        assertThrows(QueryBudgetExceededException.class,
+                () -> counter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(), chain));
+        assertEquals(1, registry.get(SqlStatementCounter.BUDGET_EXCEEDED_METRIC_NAME)
+                .tag("endpoint", "ItemController.getAllItems")
+                .counter()
+                .count());
+        assertEquals(2, registry.get(SqlStatementCounter.METRIC_NAME).summary().totalAmount());
+        assertEquals("select 1", counter.inspect("select 1"));
+    }
+
+    @Test
+    void exposesPrometheusScrapeEndpoint() throws Exception {
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_sql_statements_count")))
+                .andExpect(content().string(containsString("shareit_service_seconds_count")));
+    }
+}
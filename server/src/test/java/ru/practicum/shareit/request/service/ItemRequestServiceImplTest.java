@@ -1,12 +1,19 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -20,6 +27,10 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItem;
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.toItemRequestDto;
 
@@ -32,6 +43,8 @@ public class ItemRequestServiceImplTest {
 
     private final ItemRequestServiceImpl requestService;
 
+    private final CacheManager cacheManager;
+
     private User user;
 
     private User user2;
@@ -137,6 +150,12 @@ public class ItemRequestServiceImplTest {
         assertThat(requestWithItem.getRequestorId(), equalTo(request.getRequestor()));
     }
 
+    @Test
+    void getRequestsAfterCursorRequiresSize() {
+        assertThrows(ValidationException.class, () -> requestService.getRequestsAfter(user.getId(),
+                PageCursor.of(itemRequest.getCreated(), itemRequest.getId()), null));
+    }
+
     @Test
     void getRequestById() {
         item.setRequest(itemRequest.getId());
@@ -156,4 +175,51 @@ public class ItemRequestServiceImplTest {
         assertThat(requestWithItem.getCreated(), equalTo(request.getCreated()));
         assertThat(requestWithItem.getRequestorId(), equalTo(request.getRequestor()));
     }
+
+    @Test
+    void getRequestByIdCachesRequestDtoButNotMisses() {
+        requestService.getRequestById(user.getId(), itemRequest.getId());
+
+        ItemRequestDto cached = cacheManager.getCache(CacheConfig.REQUESTS)
+                .get(itemRequest.getId(), ItemRequestDto.class);
+        assertThat(cached.getDescription(), equalTo(itemRequest.getDescription()));
+
+        assertThrows(EntityNotFoundException.class, () -> requestService.getRequestById(user.getId(), 9999L));
+        assertThat(cacheManager.getCache(CacheConfig.REQUESTS).get(9999L), nullValue());
+        assertThrows(EntityNotFoundException.class, () -> requestService.getRequestById(9999L, itemRequest.getId()));
+    }
+
+    @Test
+    void getSelfRequestsLoadsItemsInOneQuery() {
+        for (int i = 0; i < 5; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setRequestor(user.getId());
+            request.setDescription("Запрос " + i);
+            request.setCreated(LocalDateTime.now().plusMinutes(i));
+            em.persist(request);
+
+            for (int j = 0; j < 2; j++) {
+                Item requestedItem = new Item();
+                requestedItem.setName("Вещь " + i + j);
+                requestedItem.setDescription("Вещь по запросу");
+                requestedItem.setAvailable(true);
+                requestedItem.setOwner(user2.getId());
+                requestedItem.setRequest(request.getId());
+                em.persist(requestedItem);
+            }
+        }
+        em.flush();
+        requestService.getSelfRequests(user.getId());
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<RequestWithItemsDto> requests = requestService.getSelfRequests(user.getId());
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(requests, hasSize(6));
+        assertThat(requests.stream().mapToInt(request -> request.getItems().size()).sum(), equalTo(10));
+        assertThat(statementCount, lessThanOrEqualTo(2L));
+    }
 }
@@ -6,27 +6,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
 @AutoConfigureMockMvc
+@Import(EntityTags.class)
 public class UserControllerTest {
 
     @MockBean
@@ -126,18 +135,98 @@ public class UserControllerTest {
     }
 
     @Test
-    void getAllUsers() throws Exception {
-        when(userService.getAllUsers())
+    void getUserByIdNotModifiedUntilBodyChanges() throws Exception {
+        UserDto renamed = UserDto.builder()
+                .id(userDto.getId())
+                .name("Renamed")
+                .email(userDto.getEmail())
+                .build();
+        when(userService.getUserById(anyLong()))
+                .thenReturn(userDto, userDto, renamed);
+
+        String entityTag = mvc.perform(get("/users/{userId}", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(mapper.writeValueAsString(userDto), true))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{userId}", userDto.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, entityTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag));
+
+        mvc.perform(get("/users/{userId}", userDto.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, entityTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed")));
+    }
+
+    @Test
+    void getUserByIdWithAnyTagStillChecksExistence() throws Exception {
+        when(userService.getUserById(anyLong()))
+                .thenThrow(new EntityNotFoundException("Пользователь не найден."));
+
+        mvc.perform(get("/users/{userId}", 99L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUsers() throws Exception {
+        when(userService.getUsers(100))
                 .thenReturn(List.of(userDto));
 
         mvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(userDto.getName())))
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
     }
 
+    @Test
+    void getUsersReturnsNextCursorForFullPage() throws Exception {
+        when(userService.getUsers(1))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, PageCursor.of(userDto.getId()).encode()));
+    }
+
+    @Test
+    void getUsersAfterCursor() throws Exception {
+        when(userService.getUsersAfter(PageCursor.of(userDto.getId()), 10))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/users")
+                        .param("size", "10")
+                        .param("cursor", PageCursor.of(userDto.getId()).encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void exportUsers() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<UserDto>> chunkConsumer = invocation.getArgument(0);
+            chunkConsumer.accept(List.of(userDto, userDto));
+            chunkConsumer.accept(List.of(userDto));
+            return null;
+        }).when(userService).exportUsers(any());
+
+        String line = mapper.writeValueAsString(userDto) + "\n";
+        mvc.perform(get("/users/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(line + line + line));
+    }
+
     @Test
     void deleteUserById() throws Exception {
         mvc.perform(delete("/users/{userId}", userDto.getId())
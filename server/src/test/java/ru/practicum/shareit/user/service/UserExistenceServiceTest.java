@@ -0,0 +1,81 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserExistenceServiceTest {
+    private UserExistenceService userExistenceService;
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+
+        userExistenceService = new UserExistenceService(userRepository, 10,
+                Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void validateUserExistsCachesExistingUser() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userExistenceService.validateUserExists(1L);
+        userExistenceService.validateUserExists(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void validateUserExistsCachesMissingUser() {
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () ->
+                userExistenceService.validateUserExists(2L));
+        assertThrows(EntityNotFoundException.class, () -> userExistenceService.validateUserExists(2L));
+
+        assertEquals("Пользователь не найден", thrown.getMessage());
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    void markExistingOverridesMissingUser() {
+        when(userRepository.existsById(3L)).thenReturn(false);
+        assertFalse(userExistenceService.userExists(3L));
+
+        userExistenceService.markExisting(3L);
+
+        assertTrue(userExistenceService.userExists(3L));
+        verify(userRepository, times(1)).existsById(3L);
+    }
+
+    @Test
+    void evictForcesNewLookup() {
+        when(userRepository.existsById(4L)).thenReturn(true, false);
+        assertTrue(userExistenceService.userExists(4L));
+
+        userExistenceService.evict(4L);
+
+        assertFalse(userExistenceService.userExists(4L));
+        verify(userRepository, times(2)).existsById(4L);
+    }
+
+    @Test
+    void existingUserIsLookedUpAgainAfterTtl() {
+        userExistenceService = new UserExistenceService(userRepository, 10, Duration.ZERO, Duration.ofMinutes(1));
+        when(userRepository.existsById(5L)).thenReturn(true, false);
+
+        assertTrue(userExistenceService.userExists(5L));
+
+        assertThrows(EntityNotFoundException.class, () -> userExistenceService.validateUserExists(5L));
+        verify(userRepository, times(2)).existsById(5L);
+    }
+}
@@ -2,13 +2,20 @@ package ru.practicum.shareit.user.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -27,7 +34,9 @@ public class UserServiceImplTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
 
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserExistenceService(userRepository, 10,
+                        Duration.ofMinutes(1), Duration.ofSeconds(5)),
+                mock(EntityManager.class), 2);
         user = new User(1L, "Егор", "egor@mailbox.ru");
     }
 
@@ -63,19 +72,43 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void getAllUsers() {
+    void getUsers() {
         final List<User> users = List.of(user);
 
-        when(userRepository.findAll())
+        when(userRepository.findAllBy(PageRequest.of(0, 10, Sort.by("id"))))
                 .thenReturn(users);
 
-        final List<UserDto> userDtos = userService.getAllUsers();
+        final List<UserDto> userDtos = userService.getUsers(10);
 
         assertNotNull(userDtos);
         assertEquals(1, userDtos.size());
         assertEquals(toUserDto(user), userDtos.get(0));
     }
 
+    @Test
+    void getUsersAfter() {
+        User nextUser = new User(2L, "Ольга", "olga@mailbox.ru");
+        when(userRepository.findAllByIdGreaterThan(user.getId(), PageRequest.of(0, 10, Sort.by("id"))))
+                .thenReturn(List.of(nextUser));
+
+        final List<UserDto> userDtos = userService.getUsersAfter(PageCursor.of(user.getId()), 10);
+
+        assertEquals(List.of(toUserDto(nextUser)), userDtos);
+    }
+
+    @Test
+    void exportUsersInChunks() {
+        User second = new User(2L, "Ольга", "olga@mailbox.ru");
+        User third = new User(3L, "Пётр", "petr@mailbox.ru");
+        when(userRepository.streamAllOrderById())
+                .thenReturn(Stream.of(user, second, third));
+        List<List<UserDto>> chunks = new ArrayList<>();
+
+        userService.exportUsers(chunks::add);
+
+        assertEquals(List.of(List.of(toUserDto(user), toUserDto(second)), List.of(toUserDto(third))), chunks);
+    }
+
     @Test
     void deleteUserById() {
         when(userRepository.save(user)).thenReturn(user);